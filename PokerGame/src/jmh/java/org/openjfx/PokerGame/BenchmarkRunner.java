@@ -0,0 +1,61 @@
+/**
+ * BenchmarkRunner
+ * 
+ * Runs every benchmark in this package with the GC profiler attached, so each result shows
+ * ops/s next to the allocation rate (gc.alloc.rate.norm is bytes allocated per operation).
+ * Any JMH command line option can be passed in to override the defaults (e.g. a benchmark name to run just that one).
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+
+public final class BenchmarkRunner {
+	
+	/**
+	 * CONSTRUCTOR
+	 * 
+	 * Not used, only main() is needed.
+	 */
+	private BenchmarkRunner() {
+	}
+	
+	/**
+	 * MAIN
+	 * 
+	 * Runs the benchmarks and saves the results to benchmark-results.json.
+	 * 
+	 * @param args
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		ChainedOptionsBuilder options = new OptionsBuilder()
+				.parent(commandLine)
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result("benchmark-results.json");
+		// defaults, only used when not given on the command line
+		if(commandLine.getBenchModes().isEmpty()) options.mode(Mode.Throughput);
+		if(!commandLine.getTimeUnit().hasValue()) options.timeUnit(TimeUnit.SECONDS);
+		if(!commandLine.getWarmupIterations().hasValue()) options.warmupIterations(3);
+		if(!commandLine.getWarmupTime().hasValue()) options.warmupTime(TimeValue.seconds(1));
+		if(!commandLine.getMeasurementIterations().hasValue()) options.measurementIterations(5);
+		if(!commandLine.getMeasurementTime().hasValue()) options.measurementTime(TimeValue.seconds(1));
+		if(!commandLine.getForkCount().hasValue()) options.forks(1);
+		if(commandLine.getIncludes().isEmpty()) options.include(BenchmarkRunner.class.getPackage().getName() + ".*Benchmark");
+		new Runner(options.build()).run();
+	}
+	
+}
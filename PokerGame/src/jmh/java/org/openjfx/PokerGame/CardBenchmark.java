@@ -0,0 +1,44 @@
+/**
+ * CardBenchmark
+ * 
+ * Measures reading a cards value and comparing two cards (used by every sort of a hand).
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+
+@State(Scope.Thread)
+public class CardBenchmark {
+	
+	/** Class variables */
+	private Card[] cards = new Card[Card.DECK_SIZE];
+	private int position;
+	
+	@Setup
+	public void setUp() {
+		// shuffled order so the JIT cannot predict which card comes next
+		Deck deck = new Deck(1);
+		for(int i = 0; i < cards.length; i++)
+			cards[i] = deck.drawCard();
+	}
+	
+	@Benchmark
+	public int getValue() {
+		position = (position + 1) % cards.length;
+		return cards[position].getValue();
+	}
+	
+	@Benchmark
+	public int compareTo() {
+		position = (position + 1) % cards.length;
+		return cards[position].compareTo(cards[(position + 7) % cards.length]);
+	}
+	
+}
@@ -0,0 +1,44 @@
+/**
+ * CheckHandBenchmark
+ * 
+ * Measures ranking hands of each category with Player.checkHand().
+ * Every invocation ranks the next hand of the category from HandCorpus.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+
+@State(Scope.Thread)
+public class CheckHandBenchmark {
+	
+	/** Index into OUTCOMES of the hands to rank */
+	@Param({"0", "1", "2", "3", "4", "5", "6", "7", "8", "9"})
+	public int category;
+	
+	/** Class variables */
+	private Player player;
+	private Card[][] hands;
+	private int position;
+	
+	@Setup
+	public void setUp() {
+		player = new Player(new Deck(1));
+		hands = HandCorpus.hands(category);
+	}
+	
+	@Benchmark
+	public int checkHand() {
+		position = (position + 1) % hands.length;
+		player.setHand(hands[position]);
+		return player.checkHand();
+	}
+	
+}
@@ -0,0 +1,55 @@
+/**
+ * DeckBenchmark
+ * 
+ * Measures creating a deck and drawing cards from it.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.util.SplittableRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+
+@State(Scope.Thread)
+public class DeckBenchmark {
+	
+	/** Class constants */
+	final private static int DRAWS = 52; // Card.DECK_SIZE, annotations need a literal constant
+	
+	/** Class variables */
+	private SplittableRandom random;
+	private Deck deck;
+	
+	@Setup
+	public void setUp() {
+		random = new SplittableRandom(1);
+		deck = new Deck(random);
+	}
+	
+	@Benchmark
+	public Deck newDeck() {
+		return new Deck(random);
+	}
+	
+	/**
+	 * DRAW CARD
+	 * 
+	 * Draws the whole deck, the score is per card drawn.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(DRAWS)
+	public int drawCard() {
+		deck.setDeck();
+		int sum = 0;
+		for(int i = 0; i < DRAWS; i++)
+			sum += deck.drawCard().getIndex();
+		return sum;
+	}
+	
+}
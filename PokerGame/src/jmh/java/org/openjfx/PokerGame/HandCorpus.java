@@ -0,0 +1,64 @@
+/**
+ * HandCorpus
+ * 
+ * A fixed set of hands for each of the OUTCOMES categories, used by the benchmarks.
+ * Hands are picked at random (from a fixed seed) out of every possible five card hand, so the same
+ * hands are used on every run and every category has HANDS_PER_CATEGORY of them to cycle through
+ * (or all of them if there are fewer, e.g. the 4 royal flushes).
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.util.SplittableRandom;
+
+
+public final class HandCorpus {
+	
+	/** Class constants */
+	final public static int HANDS_PER_CATEGORY = 256;
+	final private static long SEED = 2020;
+	final private static Card[][][] HANDS = new Card[Table.OUTCOMES.length][][];
+	
+	static {
+		// reservoir sampling over all hands keeps an even spread of each category
+		Card[][][] picked = new Card[Table.OUTCOMES.length][HANDS_PER_CATEGORY][];
+		long[] seen = new long[Table.OUTCOMES.length];
+		SplittableRandom random = new SplittableRandom(SEED);
+		for(int a = 0; a < Card.DECK_SIZE; a++)
+			for(int b = a + 1; b < Card.DECK_SIZE; b++)
+				for(int c = b + 1; c < Card.DECK_SIZE; c++)
+					for(int d = c + 1; d < Card.DECK_SIZE; d++)
+						for(int e = d + 1; e < Card.DECK_SIZE; e++) {
+							Card[] hand = new Card[] {Card.ofIndex(a), Card.ofIndex(b), Card.ofIndex(c), Card.ofIndex(d), Card.ofIndex(e)};
+							int category = HandEvaluator.category(HandEvaluator.evaluate(hand));
+							long slot = seen[category] < HANDS_PER_CATEGORY ? seen[category] : random.nextLong(seen[category] + 1);
+							if(slot < HANDS_PER_CATEGORY) picked[category][(int) slot] = hand;
+							seen[category]++;
+						}
+		for(int i = 0; i < HANDS.length; i++) {
+			HANDS[i] = new Card[(int) Math.min(seen[i], HANDS_PER_CATEGORY)][];
+			System.arraycopy(picked[i], 0, HANDS[i], 0, HANDS[i].length);
+		}
+	}
+	
+	/**
+	 * CONSTRUCTOR
+	 * 
+	 * Not used, all methods are static.
+	 */
+	private HandCorpus() {
+	}
+	
+	/**
+	 * HANDS
+	 * 
+	 * @param category
+	 * @return the hands of one category (index into OUTCOMES), the arrays should not be changed
+	 */
+	public static Card[][] hands(int category) {
+		return HANDS[category];
+	}
+	
+}
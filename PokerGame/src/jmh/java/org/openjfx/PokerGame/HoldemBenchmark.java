@@ -0,0 +1,45 @@
+/**
+ * HoldemBenchmark
+ * 
+ * Measures ranking seven card hands (two hole cards and a full board) with HoldemEvaluator.
+ * Every invocation ranks the next of HANDS random hands, dealt from a fixed seed so the same hands are used on every run.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.util.SplittableRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+
+@State(Scope.Thread)
+public class HoldemBenchmark {
+	
+	/** Class constants */
+	final public static int HANDS = 4096;
+	
+	/** Class variables */
+	private long[] hands = new long[HANDS];
+	private int position;
+	
+	@Setup
+	public void setUp() {
+		Deck deck = new Deck(new SplittableRandom(2020));
+		for(int i = 0; i < HANDS; i++) {
+			deck.setDeck();
+			for(int card = 0; card < HoldemEvaluator.MAX_CARDS; card++)
+				hands[i] |= deck.drawCard().getBitboard();
+		}
+	}
+	
+	@Benchmark
+	public int evaluate() {
+		position = (position + 1) & (HANDS - 1);
+		return HoldemEvaluator.evaluate(hands[position]);
+	}
+	
+}
@@ -0,0 +1,43 @@
+/**
+ * PlayerBenchmark
+ * 
+ * Measures dealing a hand (into the bitboard of the Player, no sorting needed).
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+
+@State(Scope.Thread)
+public class PlayerBenchmark {
+	
+	/** Class variables */
+	private Deck deck;
+	private Player player;
+	
+	@Setup
+	public void setUp() {
+		deck = new Deck(1);
+		player = new Player(deck);
+	}
+	
+	/**
+	 * GENERATE HAND
+	 * 
+	 * Deals five cards.
+	 * The deck is refilled whenever it runs low.
+	 */
+	@Benchmark
+	public Player generateHand() {
+		if(deck.deckSize() < Table.CARDS_PER_PLAYER) deck.setDeck();
+		player.generateHand(deck);
+		return player;
+	}
+	
+}
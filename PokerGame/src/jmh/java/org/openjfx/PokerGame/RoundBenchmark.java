@@ -0,0 +1,47 @@
+/**
+ * RoundBenchmark
+ * 
+ * Measures one complete round at a headless Table: deal, open (when someone can), refresh and showdown.
+ * Your cards are refreshed the way the game suggests (the non-valuable ones), the computer plays as normal
+ * except that without a strategy file its refresh comes from DrawOptimizer.quick(), not the default optimizer,
+ * which would spend its whole 20 ms budget on every decision and leave nothing else to measure.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.util.SplittableRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+
+@State(Scope.Thread)
+public class RoundBenchmark {
+	
+	/** Class variables */
+	private Table table;
+	
+	@Setup
+	public void setUp() {
+		table = new Table(1);
+		if(!table.hasDrawStrategyTable()) table.setDrawOptimizer(DrawOptimizer.quick(new SplittableRandom(1)));
+	}
+	
+	@Benchmark
+	public int round() {
+		if(table.isGameOver()) table.setUpGame();
+		else table.nextRound();
+		if(table.getOpener() == Table.NOBODY) return table.getScore(Table.YOU);
+		table.open();
+		int yourCardsToRefresh = 0;
+		for(int i = 0; i < Table.CARDS_PER_PLAYER; i++)
+			if(!table.getYou().checkIfValuableCard(i) && Integer.bitCount(yourCardsToRefresh) < Table.ALLOWED_REFRESHABLE_CARDS)
+				yourCardsToRefresh |= 1 << i;
+		table.refresh(yourCardsToRefresh);
+		return table.check();
+	}
+	
+}
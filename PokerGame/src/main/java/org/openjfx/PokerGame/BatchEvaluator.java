@@ -0,0 +1,124 @@
+/**
+ * BatchEvaluator
+ * 
+ * A class used to rank a large batch of five card hands in one call, e.g. for simulations and enumerations.
+ * 
+ * The hands are passed as struct-of-arrays: one int[] per card slot holding the packed bits (see Card.getBits())
+ * of that card for every hand, so cards[2][h] is the third card of hand h. The scores are the same as
+ * HandEvaluator.evaluate() and Player.checkHand() (a full rank key, see HandEvaluator),
+ * and sort() puts a batch of scores in order with a radix sort.
+ * 
+ * If the jdk.incubator.vector module is loaded (compile and run with --add-modules jdk.incubator.vector) and the
+ * CPU has vectors of at least 8 ints, the hands are ranked many at a time by VectorBatchEvaluator,
+ * otherwise each hand is ranked by HandEvaluator in a plain loop.
+ * Setting the pokergame.scalar property to true forces the plain loop.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.util.Arrays;
+
+
+public final class BatchEvaluator {
+	
+	/** Class constants */
+	final public static String SCALAR_PROPERTY = "pokergame.scalar";
+	final private static int RADIX_BITS = 8, RADIX = 1 << RADIX_BITS;
+	final private static boolean VECTORIZED = !Boolean.getBoolean(SCALAR_PROPERTY)
+			&& ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent() && VectorBatchEvaluator.isSupported();
+	
+	/**
+	 * CONSTRUCTOR
+	 * 
+	 * Not used, all methods are static.
+	 */
+	private BatchEvaluator() {
+	}
+	
+	/**
+	 * EVALUATE
+	 * 
+	 * Ranks the first count hands, with the Vector API if it is available.
+	 * 
+	 * @param cards one array per card slot (Table.CARDS_PER_PLAYER arrays of at least count cards)
+	 * @param scores array of at least count to save the scores in
+	 * @param count
+	 */
+	public static void evaluate(int[][] cards, int[] scores, int count) {
+		checkBatch(cards, scores, count);
+		if(VECTORIZED) VectorBatchEvaluator.evaluate(cards, scores, count);
+		else evaluateScalar(cards, scores, 0, count);
+	}
+	
+	/**
+	 * EVALUATE SCALAR
+	 * 
+	 * Ranks hands from one to another (exclusive) one at a time, also used for the hands left over after the last full vector.
+	 * 
+	 * @param cards
+	 * @param scores
+	 * @param from
+	 * @param to
+	 */
+	public static void evaluateScalar(int[][] cards, int[] scores, int from, int to) {
+		int[] c1 = cards[0], c2 = cards[1], c3 = cards[2], c4 = cards[3], c5 = cards[4];
+		for(int i = from; i < to; i++)
+			scores[i] = HandEvaluator.evaluate(c1[i], c2[i], c3[i], c4[i], c5[i]);
+	}
+	
+	/**
+	 * SORT
+	 * 
+	 * Puts the first count scores in order, lowest first, with a least significant digit radix sort
+	 * (one counting pass for every RADIX_BITS of the HandEvaluator.SCORE_BITS, no comparisons).
+	 * 
+	 * @param scores scores from evaluate(), or any ints from 0 to 2^SCORE_BITS - 1
+	 * @param count
+	 */
+	public static void sort(int[] scores, int count) {
+		if(scores.length < count) throw new IllegalArgumentException("Score array shorter than the batch: " + scores.length);
+		int[] from = scores, to = new int[count], starts = new int[RADIX];
+		for(int shift = 0; shift < HandEvaluator.SCORE_BITS; shift += RADIX_BITS) {
+			Arrays.fill(starts, 0);
+			for(int i = 0; i < count; i++)
+				starts[(from[i] >>> shift) & (RADIX - 1)]++;
+			for(int digit = 0, start = 0; digit < RADIX; digit++) {
+				int digitCount = starts[digit];
+				starts[digit] = start;
+				start += digitCount;
+			}
+			for(int i = 0; i < count; i++)
+				to[starts[(from[i] >>> shift) & (RADIX - 1)]++] = from[i];
+			int[] sorted = to;
+			to = from;
+			from = sorted;
+		}
+		if(from != scores) System.arraycopy(from, 0, scores, 0, count);
+	}
+	
+	/**
+	 * CHECK BATCH
+	 * 
+	 * @param cards
+	 * @param scores
+	 * @param count
+	 */
+	private static void checkBatch(int[][] cards, int[] scores, int count) {
+		if(cards.length != Table.CARDS_PER_PLAYER) throw new IllegalArgumentException("A batch needs " + Table.CARDS_PER_PLAYER + " card arrays");
+		for(int[] slot : cards)
+			if(slot.length < count) throw new IllegalArgumentException("Card array shorter than the batch: " + slot.length);
+		if(scores.length < count) throw new IllegalArgumentException("Score array shorter than the batch: " + scores.length);
+	}
+	
+	/**
+	 * IS VECTORIZED
+	 * 
+	 * @return true if batches are ranked with the Vector API
+	 */
+	public static boolean isVectorized() {
+		return VECTORIZED;
+	}
+
+}
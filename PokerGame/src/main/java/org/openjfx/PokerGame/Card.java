@@ -4,58 +4,97 @@
  * A class used to store the details of a single playing card.
  * Implements the Comparable interface in order to compare the values of card objects.
  * 
+ * Each card is packed into a single int and all 52 cards are shared, immutable instances
+ * created once in a static table, use Card.of(suit, value) to get one.
+ * 
  * @author endamccarthy
  * Last Modified: 12/04/2020
  */
 
 package org.openjfx.PokerGame;
-import java.util.Arrays;
 
 
 /**
  * Implements the Comparable interface to compare 2 cards for sorting purposes.
  */
-public class Card implements Comparable<Card>{
+final public class Card implements Comparable<Card>{
 	
 	/** Class constants and variables */
 	final public static String[] SUITES = new String[] {"♠", "♡", "♣", "♢"};
 	final public static String[] VALUES = new String[] {"2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"};
-	private String suit, value; // stores the suit and value of a Card object
+	final public static int DECK_SIZE = SUITES.length * VALUES.length;
+	
+	/*
+	 * Layout of the packed card bits:
+	 * xxxbbbbb bbbbbbbb xxxxiiii iissvvvv
+	 * v = value (0-12), s = suit (0-3), i = index in the deck (0-51), b = one bit set for the value
+	 */
+	final public static int VALUE_MASK = 0xF;
+	final public static int SUIT_SHIFT = 4, SUIT_MASK = 0x3;
+	final public static int INDEX_SHIFT = 6, INDEX_MASK = 0x3F;
+	final public static int VALUE_BIT_SHIFT = 16;
+	final private static Card[] CARDS = new Card[DECK_SIZE]; // indexed by suit * 13 + value
+	
+	private final int bits; // stores the suit, value and deck index of a Card object
+	private final String name; // e.g. ♠A, built once so printing a card does not create a String
+	
+	static {
+		for(int i = 0; i < SUITES.length; i++)
+			for(int j = 0; j < VALUES.length; j++)
+				CARDS[i * VALUES.length + j] = new Card(i, j);
+	}
 	
 	/**
 	 * CONSTRUCTOR
 	 * 
 	 * Takes in 2 integers representing a suit (0-3) and a value (0-12).
-	 * Calls methods to set the suit and value for the card object.
+	 * Packs the suit, value, deck index and value bit into one int.
+	 * Only used to fill the static table of cards.
 	 * 
 	 * @param suit
 	 * @param value
 	 */
-	public Card(int suit, int value) {
-		setSuit(suit);
-		setValue(value);
+	private Card(int suit, int value) {
+		this.bits = value | (suit << SUIT_SHIFT) | ((suit * VALUES.length + value) << INDEX_SHIFT) | (1 << (value + VALUE_BIT_SHIFT));
+		this.name = SUITES[suit] + VALUES[value];
 	}
 	
 	/**
-	 * SET SUIT
+	 * OF
 	 * 
-	 * Uses an integer value (0-3) to pick the suit from SUITES.
+	 * Returns the shared Card object for a suit (0-3) and a value (0-12).
 	 * 
 	 * @param suit
+	 * @param value
+	 * @return the canonical Card object
 	 */
-	public void setSuit(int suit) {
-		this.suit = SUITES[suit];
+	public static Card of(int suit, int value) {
+		return CARDS[suit * VALUES.length + value];
 	}
 	
 	/**
-	 * SET VALUE
+	 * OF INDEX
 	 * 
-	 * Uses an integer value (0-12) to pick the value from VALUES.
+	 * Returns the shared Card object for a deck index (0-51).
 	 * 
-	 * @param value
+	 * @param index
+	 * @return the canonical Card object
 	 */
-	public void setValue(int value) {
-		this.value = VALUES[value];
+	public static Card ofIndex(int index) {
+		return CARDS[index];
+	}
+	
+	/**
+	 * OF BITBOARD
+	 * 
+	 * Returns the shared Card object for the lowest card in a bitboard (see getBitboard()).
+	 * 
+	 * @param bitboard
+	 * @return the canonical Card object
+	 */
+	public static Card ofBitboard(long bitboard) {
+		int bit = Long.numberOfTrailingZeros(bitboard);
+		return of(bit & SUIT_MASK, bit >>> 2);
 	}
 	
 	/**
@@ -64,7 +103,7 @@ public class Card implements Comparable<Card>{
 	 * @return index of object suit in SUITES
 	 */
 	public int getSuit() {
-		return Arrays.asList(SUITES).indexOf(suit);
+		return (bits >>> SUIT_SHIFT) & SUIT_MASK;
 	}
 	
 	/**
@@ -73,7 +112,37 @@ public class Card implements Comparable<Card>{
 	 * @return index of object value in VALUES
 	 */
 	public int getValue() {
-		return Arrays.asList(VALUES).indexOf(value);
+		return bits & VALUE_MASK;
+	}
+	
+	/**
+	 * GET INDEX
+	 * 
+	 * @return position of the card in a new deck (suit * 13 + value)
+	 */
+	public int getIndex() {
+		return (bits >>> INDEX_SHIFT) & INDEX_MASK;
+	}
+	
+	/**
+	 * GET BITS
+	 * 
+	 * @return the packed int representing this card
+	 */
+	public int getBits() {
+		return bits;
+	}
+	
+	/**
+	 * GET BITBOARD
+	 * 
+	 * A set of cards can be held in one long with bit (value * 4 + suit) set for every card,
+	 * so the cards come out lowest value first when the set bits are read from the bottom.
+	 * 
+	 * @return a bitboard holding only this card
+	 */
+	public long getBitboard() {
+		return 1L << (getValue() << 2 | getSuit());
 	}
 	
 	/**
@@ -82,7 +151,7 @@ public class Card implements Comparable<Card>{
 	 * @return string containing the suit and the value of card object (e.g. ♠A)
 	 */
 	public String toString() {
-		return suit + value;
+		return name;
 	}
 	
 	/**
@@ -95,9 +164,7 @@ public class Card implements Comparable<Card>{
 	 * @return 1, 0 or -1 (greater than, equal to or less than)
 	 */
 	public int compareTo(Card otherCard) {
-        if(this.getValue() > otherCard.getValue()) return 1;
-        else if (this.getValue() == otherCard.getValue()) return 0 ;
-        return -1 ;
+		return Integer.compare(bits & VALUE_MASK, otherCard.bits & VALUE_MASK);
     }
-	
+
 }
@@ -1,74 +1,122 @@
 /**
  * Deck
  * 
- * A class used to represent a deck of playing cards (ArrayList of Card classes).
+ * A class used to represent a deck of playing cards (fixed array of the shared Card objects).
+ * 
+ * Cards are dealt with one step of a Fisher–Yates shuffle per draw: a random card is picked from
+ * the cards still in the deck and swapped to the end, the end then moves in by one.
+ * The random number generator can be passed in, so a deal can be reproduced exactly from a seed.
+ * A deck is reused from round to round with setDeck(), which puts the cards back in order without creating anything.
+ * Drawn cards are kept at the end of the array, so returnCards() can put some of them back to be drawn again.
  * 
  * @author endamccarthy
  * Last Modified: 12/04/2020
  */
 
 package org.openjfx.PokerGame;
-import java.util.ArrayList;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 
 public class Deck {
 	
 	/** Class variables */
-	private ArrayList<Card> deck;
-	private Card card;
-	private Random random;
+	private Card[] deck = new Card[Card.DECK_SIZE];
+	private int cardsLeft; // cards at positions 0 to cardsLeft - 1 are still in the deck
+	private RandomGenerator random;
 	
 	/**
-	 * CONSTRUCTOR
+	 * CONSTRUCTOR (OVERLOADED)
 	 * 
-	 * Calls method to set the deck.
+	 * Uses a new randomly seeded generator.
 	 */
 	public Deck() {
+		this(new SplittableRandom());
+	}
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * Uses a generator created from a seed, the same seed always deals the same cards.
+	 * 
+	 * @param seed
+	 */
+	public Deck(long seed) {
+		this(new SplittableRandom(seed));
+	}
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * Uses the generator passed in (e.g. SplittableRandom or one from RandomGenerator.of("Xoroshiro128PlusPlus")).
+	 * Calls method to set the deck.
+	 * 
+	 * @param random
+	 */
+	public Deck(RandomGenerator random) {
+		this.random = random;
 		setDeck();
 	}
 	
 	/**
 	 * SET DECK
 	 * 
-	 * Instantiates deck as a new ArrayList of Cards of length 52 (assuming 13 values and 4 suits).
-	 * Generates new Cards and adds them to the deck.
-	 * Order they are added in is by suit first, then value (e.g. 2♠, 3♠, 4♠....) 
+	 * Puts all 52 shared Card objects back into the deck (assuming 13 values and 4 suits).
+	 * Order they are added in is by suit first, then value (e.g. 2♠, 3♠, 4♠....)
 	 */
 	public void setDeck() {
-		deck = new ArrayList<Card>(Card.SUITES.length * Card.VALUES.length);
-		for(int i = 0; i < Card.SUITES.length; i++)
-			for(int j = 0; j < Card.VALUES.length; j++) {
-				card = new Card(i, j);
-				deck.add(card);
-			}
+		for(int i = 0; i < deck.length; i++)
+			deck[i] = Card.ofIndex(i);
+		cardsLeft = deck.length;
 	}
 	
 	/**
 	 * DRAW CARD
-	 *
+	 * 
 	 * Checks if deck has one or more cards left.
-	 * If so, removes a random card from the deck, saves it to drawnCard and returns drawnCard.
+	 * If so, picks a random card from the deck, swaps it with the last card left and returns it.
 	 * 
 	 * @return a Card object representing a card drawn from the deck
 	 */
 	public Card drawCard() {
-		if(deck.size() >= 1) {
-			random = new Random();
-			Card drawnCard = deck.get(random.nextInt(deck.size()));
-			deck.remove(drawnCard);
+		if(cardsLeft >= 1) {
+			int picked = random.nextInt(cardsLeft);
+			Card drawnCard = deck[picked];
+			deck[picked] = deck[--cardsLeft];
+			deck[cardsLeft] = drawnCard;
 			return drawnCard;
 		}
 		else return null;
 	}
 	
+	/**
+	 * RETURN CARDS
+	 * 
+	 * Puts cards that were drawn back into the deck to be drawn again (e.g. the discards when a big table runs out of cards).
+	 * 
+	 * @param cards bitboard of the cards (see Card.getBitboard()), cards that were not drawn are ignored
+	 * @return the number of cards put back
+	 */
+	public int returnCards(long cards) {
+		int returned = 0;
+		for(int i = cardsLeft; i < deck.length && cards != 0; i++) {
+			if((cards & deck[i].getBitboard()) == 0) continue;
+			cards &= ~deck[i].getBitboard();
+			Card returnedCard = deck[i];
+			deck[i] = deck[cardsLeft];
+			deck[cardsLeft++] = returnedCard;
+			returned++;
+		}
+		return returned;
+	}
+	
 	/**
 	 * DECK SIZE
 	 * 
 	 * @return the amount of cards currently in the deck
 	 */
 	public int deckSize() {
-		return deck.size();
+		return cardsLeft;
 	}
 	
 	/**
@@ -77,10 +125,21 @@ public class Deck {
 	 * @return string containing the suit and the value of every card object in the deck
 	 */
 	public String toString() {
-		String toString = "";
-		for(int i = 0; i < deck.size(); i++)
-			toString += deck.get(i).toString() + "\n";
-		return toString;
+		return appendTo(new StringBuilder()).toString();
+	}
+	
+	/**
+	 * APPEND TO
+	 * 
+	 * Adds the same text as toString() to a builder, which can be cleared and used again for every deal.
+	 * 
+	 * @param text
+	 * @return the builder passed in
+	 */
+	public StringBuilder appendTo(StringBuilder text) {
+		for(int i = 0; i < cardsLeft; i++)
+			text.append(deck[i]).append('\n');
+		return text;
 	}
 
 }
@@ -0,0 +1,99 @@
+/**
+ * DefaultStrategy
+ * 
+ * The way the game has always been played, used for the computer unless another Strategy is set:
+ * 1. Always plays when the round can be opened
+ * 2. Refreshes the suggested cards (from the strategy file or the DrawOptimizer)
+ * 3. Sees a bet when holding at least the tables MIN_COMPUTER_PROCEED, otherwise folds
+ * 4. Bets when holding at least the same value, 1 coin for a pair or two pair, 2 for a triple, 3 for anything better
+ * 
+ * The value needed to bet or call can be changed to make a looser or tighter player.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+
+
+public class DefaultStrategy implements Strategy {
+	
+	/** Class variables */
+	private String name;
+	private int minProceed; // -1 to use the MIN_COMPUTER_PROCEED of the table
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * Follows the rules of the table.
+	 */
+	public DefaultStrategy() {
+		this("Default", -1);
+	}
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * @param name
+	 * @param minProceed hand value needed to bet or call
+	 */
+	public DefaultStrategy(String name, int minProceed) {
+		this.name = name;
+		this.minProceed = minProceed;
+	}
+	
+	/**
+	 * OPEN
+	 */
+	@Override
+	public boolean open(Table table, int seat) {
+		return true;
+	}
+	
+	/**
+	 * DISCARD
+	 */
+	@Override
+	public int discard(Table table, int seat) {
+		return table.getSuggestedRefresh(seat);
+	}
+	
+	/**
+	 * BET
+	 */
+	@Override
+	public int bet(Table table, int seat, int maxBetAmount) {
+		int score = table.getScore(seat);
+		if(score < getMinProceed(table)) return 0;
+		int category = HandEvaluator.category(score);
+		int betAmount = category <= HandEvaluator.TWO_PAIR ? 1 : category == HandEvaluator.TRIPLE ? 2 : 3;
+		return Math.min(betAmount, maxBetAmount);
+	}
+	
+	/**
+	 * CALL
+	 */
+	@Override
+	public boolean call(Table table, int seat, int betAmount) {
+		return table.getScore(seat) >= getMinProceed(table);
+	}
+	
+	/**
+	 * GET MIN PROCEED
+	 * 
+	 * @param table
+	 * @return hand value needed to bet or call
+	 */
+	private int getMinProceed(Table table) {
+		return minProceed < 0 ? table.getMinComputerProceed() : minProceed;
+	}
+	
+	/**
+	 * GET NAME
+	 */
+	@Override
+	public String getName() {
+		return name;
+	}
+
+}
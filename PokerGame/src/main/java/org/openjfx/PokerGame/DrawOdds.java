@@ -0,0 +1,241 @@
+/**
+ * DrawOdds
+ * 
+ * A class used to work out the exact chance of finishing in each of the OUTCOMES categories after refreshing a
+ * selection of cards, e.g. to show next to the refresh checkboxes or for a bot deciding what to refresh.
+ * 
+ * Every possible set of replacement cards is ranked, drawn from the 47 cards not in the hand
+ * (at most C(47, 4) = 178,365 hands when 4 cards are refreshed). These are the cards the player can't see,
+ * so the odds are exact unless the Table has to put discards back in the deck (more than 5 seats, see Table.getDrawOdds()).
+ * The hands are ranked in batches of BATCH_SIZE by BatchEvaluator (with the Vector API if it is loaded),
+ * the same way HandEnumerator ranks every hand.
+ * 
+ * The odds only depend on the values of the cards and on which of them share a suit, not on the suits themselves
+ * (keeping ♠A ♠K and refreshing ♡2 ♣3 ♢4 has the same odds as keeping ♡A ♡K and refreshing ♠2 ♣3 ♢4).
+ * So the odds are cached under a key for the pattern: the hand and the refreshed positions are written out
+ * under each of the 24 ways of renaming the suits and the smallest is used, any hand with the same values and
+ * suit structure gets the same key. A repeated query is a lookup in a ConcurrentHashMap.
+ * The cache is emptied when it holds maxCached patterns, so it can't grow without limit.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+public class DrawOdds {
+	
+	/** Class constants */
+	final public static int BATCH_SIZE = 4096;
+	final public static int DEFAULT_MAX_CACHED = 100_000; // about 15 MB of odds
+	final private static int POSITION_BITS = 6; // bit of a card in the bitboard, 0-51
+	final private static int[][] SUIT_PERMUTATIONS = suitPermutations();
+	final private static DrawOdds DEFAULT = new DrawOdds(DEFAULT_MAX_CACHED);
+	
+	/** Class variables */
+	private final Map<Long, double[]> cache = new ConcurrentHashMap<>();
+	private final int maxCached;
+	
+	/**
+	 * CONSTRUCTOR
+	 * 
+	 * @param maxCached most patterns kept before the cache is emptied
+	 */
+	public DrawOdds(int maxCached) {
+		this.maxCached = maxCached;
+	}
+	
+	/**
+	 * GET DEFAULT
+	 * 
+	 * @return the odds shared by the whole program (Main, Table and GameServer)
+	 */
+	public static DrawOdds getDefault() {
+		return DEFAULT;
+	}
+	
+	/**
+	 * ODDS (OVERLOADED)
+	 * 
+	 * @param player
+	 * @param cardsToRefresh bit i selects card i of the sorted hand
+	 * @return the chance of finishing in each category, indexed the same as OUTCOMES (shared, should not be changed)
+	 */
+	public double[] odds(Player player, int cardsToRefresh) {
+		return odds(player.getCards(), cardsToRefresh);
+	}
+	
+	/**
+	 * ODDS (OVERLOADED)
+	 * 
+	 * Looks up the odds of the pattern, working them out the first time it is seen.
+	 * 
+	 * @param hand bitboard of five cards
+	 * @param cardsToRefresh bit i selects card i of the sorted hand
+	 * @return the chance of finishing in each category, indexed the same as OUTCOMES (shared, should not be changed)
+	 */
+	public double[] odds(long hand, int cardsToRefresh) {
+		if(Long.bitCount(hand) != Table.CARDS_PER_PLAYER) throw new IllegalArgumentException("A hand needs " + Table.CARDS_PER_PLAYER + " cards");
+		if(Integer.bitCount(cardsToRefresh) > Table.ALLOWED_REFRESHABLE_CARDS || (cardsToRefresh >>> Table.CARDS_PER_PLAYER) != 0)
+			throw new IllegalArgumentException("Invalid cards to refresh: " + Integer.toBinaryString(cardsToRefresh));
+		long refreshed = 0, remaining = hand;
+		for(int i = 0; remaining != 0; i++, remaining &= remaining - 1)
+			if((cardsToRefresh & (1 << i)) != 0) refreshed |= Long.lowestOneBit(remaining);
+		long key = key(hand, refreshed);
+		double[] odds = cache.get(key);
+		if(odds != null) return odds;
+		odds = enumerate(hand, refreshed);
+		if(cache.size() >= maxCached) cache.clear();
+		cache.put(key, odds);
+		return odds;
+	}
+	
+	/**
+	 * KEY
+	 * 
+	 * Renames the suits every possible way and keeps the smallest encoding of the hand, so every hand with the same
+	 * values and suit structure has the same key.
+	 * 
+	 * @param hand
+	 * @param refreshed bitboard of the cards refreshed
+	 * @return the position of each card in the bitboard (POSITION_BITS each, lowest first), each followed by a bit set if it is refreshed
+	 */
+	private static long key(long hand, long refreshed) {
+		long key = Long.MAX_VALUE;
+		for(int[] permutation : SUIT_PERMUTATIONS) {
+			long renamedHand = renameSuits(hand, permutation), renamedRefreshed = renameSuits(refreshed, permutation), encoded = 0;
+			for(long cards = renamedHand; cards != 0; cards &= cards - 1) {
+				long card = Long.lowestOneBit(cards);
+				encoded = encoded << (POSITION_BITS + 1) | (long) Long.numberOfTrailingZeros(card) << 1 | ((renamedRefreshed & card) != 0 ? 1 : 0);
+			}
+			key = Math.min(key, encoded);
+		}
+		return key;
+	}
+	
+	/**
+	 * RENAME SUITS
+	 * 
+	 * @param cards a bitboard
+	 * @param permutation the new suit of each suit
+	 * @return the bitboard with every card moved to its new suit
+	 */
+	private static long renameSuits(long cards, int[] permutation) {
+		long renamed = 0;
+		for(int suit = 0; suit < permutation.length; suit++)
+			renamed |= ((cards >>> suit) & HandEvaluator.SUIT_LANES) << permutation[suit];
+		return renamed;
+	}
+	
+	/**
+	 * ENUMERATE
+	 * 
+	 * Ranks the kept cards with every combination of replacements from the cards not in the hand.
+	 * 
+	 * @param hand
+	 * @param refreshed
+	 * @return the chance of finishing in each category
+	 */
+	private static double[] enumerate(long hand, long refreshed) {
+		int draws = Long.bitCount(refreshed), kept = Table.CARDS_PER_PLAYER - draws;
+		int batchSize = (int) Math.min(BATCH_SIZE, combinations(Card.DECK_SIZE - Table.CARDS_PER_PLAYER, draws));
+		int[][] cards = new int[Table.CARDS_PER_PLAYER][batchSize];
+		int[] scores = new int[batchSize];
+		int[] unseen = new int[Card.DECK_SIZE - Table.CARDS_PER_PLAYER];
+		int slot = 0;
+		for(long remaining = hand & ~refreshed; remaining != 0; remaining &= remaining - 1)
+			Arrays.fill(cards[slot++], Card.ofBitboard(remaining).getBits()); // the kept cards are the same in every hand
+		for(int i = 0, j = 0; i < Card.DECK_SIZE; i++)
+			if((hand & (1L << i)) == 0) unseen[j++] = Card.ofBitboard(1L << i).getBits();
+		long[] counts = new long[Table.OUTCOMES.length];
+		int[] positions = new int[draws];
+		for(int i = 0; i < draws; i++)
+			positions[i] = i;
+		long total = 0;
+		int hands = 0;
+		while(true) {
+			for(int i = 0; i < draws; i++)
+				cards[kept + i][hands] = unseen[positions[i]];
+			if(++hands == batchSize) {
+				count(cards, scores, hands, counts);
+				total += hands;
+				hands = 0;
+			}
+			// move on to the next combination of positions
+			int i = draws - 1;
+			while(i >= 0 && positions[i] == unseen.length - draws + i) i--;
+			if(i < 0) break;
+			positions[i]++;
+			for(int j = i + 1; j < draws; j++)
+				positions[j] = positions[j - 1] + 1;
+		}
+		count(cards, scores, hands, counts);
+		total += hands;
+		double[] odds = new double[counts.length];
+		for(int category = 0; category < counts.length; category++)
+			odds[category] = (double) counts[category] / total;
+		return odds;
+	}
+	
+	/**
+	 * COUNT
+	 * 
+	 * Ranks a batch of hands and adds them to the counts.
+	 * 
+	 * @param cards
+	 * @param scores
+	 * @param hands
+	 * @param counts
+	 */
+	private static void count(int[][] cards, int[] scores, int hands, long[] counts) {
+		BatchEvaluator.evaluate(cards, scores, hands);
+		for(int i = 0; i < hands; i++)
+			counts[HandEvaluator.category(scores[i])]++;
+	}
+	
+	/**
+	 * COMBINATIONS
+	 * 
+	 * @param n
+	 * @param k
+	 * @return number of ways to choose k cards from n
+	 */
+	private static long combinations(int n, int k) {
+		long result = 1;
+		for(int i = 0; i < k; i++)
+			result = result * (n - i) / (i + 1);
+		return result;
+	}
+	
+	/**
+	 * SUIT PERMUTATIONS
+	 * 
+	 * @return all 24 orders of the four suits
+	 */
+	private static int[][] suitPermutations() {
+		int[][] permutations = new int[24][];
+		int found = 0;
+		for(int a = 0; a < 4; a++)
+			for(int b = 0; b < 4; b++)
+				for(int c = 0; c < 4; c++)
+					for(int d = 0; d < 4; d++)
+						if((1 << a | 1 << b | 1 << c | 1 << d) == 0xF) permutations[found++] = new int[] {a, b, c, d};
+		return permutations;
+	}
+	
+	/**
+	 * GETTERS
+	 */
+	public int getCachedPatterns() {
+		return cache.size();
+	}
+	
+	public int getMaxCached() {
+		return maxCached;
+	}
+
+}
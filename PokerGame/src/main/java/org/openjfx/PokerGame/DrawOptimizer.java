@@ -0,0 +1,314 @@
+/**
+ * DrawOptimizer
+ * 
+ * A class used to pick which cards to refresh by working out the expected hand strength for every legal discard.
+ * 
+ * A discard is a mask over the five positions of a sorted hand (bit i refreshes card i), at most
+ * ALLOWED_REFRESHABLE_CARDS bits may be set, which leaves 31 legal masks (including keeping every card).
+ * For each mask the replacement cards are drawn from the 47 cards not in the hand:
+ * 1. If there are at most exactLimit possible replacements, every one of them is ranked (exact expected value)
+ * 2. Otherwise random replacements are ranked until samplesPerMask is reached or the time budget runs out
+ * The masks are evaluated in parallel and the mask with the highest expected score is chosen,
+ * the score being the strength of the final hand (HandEvaluator.strength(), category * 100 + highest card),
+ * so a kicker does not count for more than it did when the strategy file was worked out.
+ * With setParallel(false) the masks are evaluated one after another in arrays the optimizer keeps,
+ * so bestDiscard() creates no garbage (for simulations that already keep every core busy).
+ * Each sampled mask then gets an equal share of the time budget, so a mask is not cut short for being tried last.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+
+public class DrawOptimizer {
+	
+	/** Class constants */
+	final public static int[] LEGAL_MASKS = IntStream.range(0, 1 << Table.CARDS_PER_PLAYER)
+			.filter(mask -> Integer.bitCount(mask) <= Table.ALLOWED_REFRESHABLE_CARDS).toArray();
+	final public static int DEFAULT_EXACT_LIMIT = 16_215; // C(47, 3), refreshing 4 cards is sampled
+	final public static int DEFAULT_SAMPLES_PER_MASK = 20_000;
+	final public static long DEFAULT_BUDGET_NANOS = 20_000_000; // 20 ms per decision
+	final public static int QUICK_SAMPLES_PER_MASK = 200;
+	final private static int MIN_SAMPLES = 256; // taken even if the time budget has run out
+	final private static int SAMPLES_PER_DEADLINE_CHECK = 256;
+	final private static int UNSEEN_CARDS = Card.DECK_SIZE - Table.CARDS_PER_PLAYER;
+	
+	/** Class variables */
+	private int exactLimit, samplesPerMask;
+	private long budgetNanos;
+	private int sampledMasks; // legal masks with more than exactLimit replacements
+	private SplittableRandom random;
+	private boolean parallel = true;
+	private int[] handBits = new int[Table.CARDS_PER_PLAYER], unseen = new int[UNSEEN_CARDS]; // used when not parallel
+	private int[] cards = new int[Table.CARDS_PER_PLAYER], positions = new int[Table.CARDS_PER_PLAYER], shuffled = new int[UNSEEN_CARDS];
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * Uses the default limits and a randomly seeded generator for the sampled masks.
+	 */
+	public DrawOptimizer() {
+		this(DEFAULT_EXACT_LIMIT, DEFAULT_SAMPLES_PER_MASK, DEFAULT_BUDGET_NANOS, new SplittableRandom());
+	}
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * Passing Integer.MAX_VALUE as exactLimit ranks every possible replacement for every mask (about a million hands).
+	 * 
+	 * @param exactLimit
+	 * @param samplesPerMask
+	 * @param budgetNanos
+	 * @param random
+	 */
+	public DrawOptimizer(int exactLimit, int samplesPerMask, long budgetNanos, SplittableRandom random) {
+		this.exactLimit = exactLimit;
+		this.samplesPerMask = samplesPerMask;
+		this.budgetNanos = budgetNanos;
+		this.random = random;
+		for(int mask : LEGAL_MASKS)
+			if(combinations(UNSEEN_CARDS, Integer.bitCount(mask)) > exactLimit) sampledMasks++;
+	}
+	
+	/**
+	 * QUICK
+	 * 
+	 * An optimizer for when there is no strategy file and decisions have to be cheap (simulations, tournaments, the server):
+	 * only single card refreshes are ranked exactly, every other mask takes QUICK_SAMPLES_PER_MASK samples with no time limit,
+	 * one mask after another, so a decision takes well under a millisecond on one core and creates no garbage.
+	 * 
+	 * @param random
+	 * @return a new sequential, sampled optimizer
+	 */
+	public static DrawOptimizer quick(SplittableRandom random) {
+		DrawOptimizer drawOptimizer = new DrawOptimizer(UNSEEN_CARDS, QUICK_SAMPLES_PER_MASK, Long.MAX_VALUE / 4, random);
+		drawOptimizer.setParallel(false);
+		return drawOptimizer;
+	}
+	
+	/**
+	 * BEST DISCARD (OVERLOADED)
+	 * 
+	 * @param player
+	 * @return the mask of cards the player should refresh
+	 */
+	public int bestDiscard(Player player) {
+		if(!parallel) return bestDiscard(player.getCards());
+		Card[] hand = new Card[Table.CARDS_PER_PLAYER];
+		for(int i = 0; i < hand.length; i++)
+			hand[i] = player.getCard(i);
+		return evaluate(hand).getBestMask();
+	}
+	
+	/**
+	 * BEST DISCARD (OVERLOADED)
+	 * 
+	 * Evaluates the masks one after another in the arrays kept by the optimizer, with the same ties as Decision.
+	 * Every sampled mask has its own deadline, budgetNanos / sampledMasks after it is started.
+	 * 
+	 * @param hand bitboard of the hand
+	 * @return the mask of cards to refresh
+	 */
+	private synchronized int bestDiscard(long hand) {
+		int kept = 0;
+		for(long remaining = hand; remaining != 0; remaining &= remaining - 1)
+			handBits[kept++] = Card.ofBitboard(remaining).getBits();
+		for(int i = 0, j = 0; i < Card.DECK_SIZE; i++)
+			if((hand & Card.ofIndex(i).getBitboard()) == 0) unseen[j++] = Card.ofIndex(i).getBits();
+		long maskBudget = budgetNanos / Math.max(1, sampledMasks);
+		int best = 0;
+		double bestScore = Double.NaN;
+		for(int mask : LEGAL_MASKS) {
+			double score = expectedScore(handBits, unseen, mask, System.nanoTime() + maskBudget, random, cards, positions, shuffled);
+			if(mask == 0 || score > bestScore || (score == bestScore && Integer.bitCount(mask) < Integer.bitCount(best))) {
+				best = mask;
+				bestScore = score;
+			}
+		}
+		return best;
+	}
+	
+	/**
+	 * EVALUATE
+	 * 
+	 * Works out the expected score of the final hand for every legal mask, in parallel.
+	 * 
+	 * @param hand
+	 * @return the expected score of each mask and the best mask
+	 */
+	public Decision evaluate(Card[] hand) {
+		int[] handBits = new int[hand.length];
+		int[] unseen = new int[UNSEEN_CARDS];
+		long used = 0;
+		for(int i = 0; i < hand.length; i++) {
+			handBits[i] = hand[i].getBits();
+			used |= 1L << hand[i].getIndex();
+		}
+		for(int i = 0, j = 0; i < Card.DECK_SIZE; i++)
+			if((used & (1L << i)) == 0) unseen[j++] = Card.ofIndex(i).getBits();
+		long deadline = System.nanoTime() + budgetNanos;
+		long seed;
+		synchronized(this) {
+			seed = random.nextLong(); // each mask gets its own generator made from this seed
+		}
+		double[] expected = new double[1 << Table.CARDS_PER_PLAYER];
+		Arrays.fill(expected, Double.NaN);
+		double[] results = IntStream.of(LEGAL_MASKS).parallel()
+				.mapToDouble(mask -> expectedScore(handBits, unseen, mask, deadline, new SplittableRandom(seed + mask),
+						new int[Table.CARDS_PER_PLAYER], new int[Table.CARDS_PER_PLAYER], new int[UNSEEN_CARDS]))
+				.toArray();
+		for(int i = 0; i < LEGAL_MASKS.length; i++)
+			expected[LEGAL_MASKS[i]] = results[i];
+		return new Decision(expected);
+	}
+	
+	/**
+	 * EXPECTED SCORE
+	 * 
+	 * @param hand
+	 * @param unseen
+	 * @param mask
+	 * @param deadline
+	 * @param random
+	 * @param cards array to build the final hands in, kept cards first and replacements after
+	 * @param positions array of at least 5 for exact()
+	 * @param shuffled array of at least unseen.length for sampled() to shuffle
+	 * @return average score of the final hand when the masked cards are refreshed
+	 */
+	private double expectedScore(int[] hand, int[] unseen, int mask, long deadline, SplittableRandom random, int[] cards,
+			int[] positions, int[] shuffled) {
+		int draws = Integer.bitCount(mask);
+		int kept = 0;
+		for(int i = 0; i < hand.length; i++)
+			if((mask & (1 << i)) == 0) cards[kept++] = hand[i];
+		if(combinations(unseen.length, draws) <= exactLimit) return exact(cards, kept, unseen, draws, positions);
+		System.arraycopy(unseen, 0, shuffled, 0, unseen.length);
+		return sampled(cards, kept, shuffled, draws, deadline, random);
+	}
+	
+	/**
+	 * EXACT
+	 * 
+	 * Ranks every combination of replacement cards.
+	 * 
+	 * @param cards
+	 * @param kept
+	 * @param unseen
+	 * @param draws
+	 * @param positions
+	 * @return average score
+	 */
+	private static double exact(int[] cards, int kept, int[] unseen, int draws, int[] positions) {
+		if(draws == 0) return HandEvaluator.strength(HandEvaluator.evaluate(cards[0], cards[1], cards[2], cards[3], cards[4]));
+		for(int i = 0; i < draws; i++)
+			positions[i] = i;
+		long total = 0, hands = 0;
+		while(true) {
+			for(int i = 0; i < draws; i++)
+				cards[kept + i] = unseen[positions[i]];
+			total += HandEvaluator.strength(HandEvaluator.evaluate(cards[0], cards[1], cards[2], cards[3], cards[4]));
+			hands++;
+			// move on to the next combination of positions
+			int i = draws - 1;
+			while(i >= 0 && positions[i] == unseen.length - draws + i) i--;
+			if(i < 0) break;
+			positions[i]++;
+			for(int j = i + 1; j < draws; j++)
+				positions[j] = positions[j - 1] + 1;
+		}
+		return (double) total / hands;
+	}
+	
+	/**
+	 * SAMPLED
+	 * 
+	 * Ranks random replacements (a few steps of a Fisher–Yates shuffle of the unseen cards each time).
+	 * 
+	 * @param cards
+	 * @param kept
+	 * @param unseen
+	 * @param draws
+	 * @param deadline
+	 * @param random
+	 * @return average score
+	 */
+	private double sampled(int[] cards, int kept, int[] unseen, int draws, long deadline, SplittableRandom random) {
+		long total = 0;
+		int hands = 0;
+		for(; hands < samplesPerMask; hands++) {
+			if(hands >= MIN_SAMPLES && hands % SAMPLES_PER_DEADLINE_CHECK == 0 && System.nanoTime() - deadline > 0) break;
+			for(int i = 0; i < draws; i++) {
+				int picked = i + random.nextInt(unseen.length - i);
+				int temp = unseen[i];
+				unseen[i] = unseen[picked];
+				unseen[picked] = temp;
+				cards[kept + i] = unseen[i];
+			}
+			total += HandEvaluator.strength(HandEvaluator.evaluate(cards[0], cards[1], cards[2], cards[3], cards[4]));
+		}
+		return (double) total / hands;
+	}
+	
+	/**
+	 * SET PARALLEL
+	 * 
+	 * @param parallel false to evaluate the masks one after another without creating any garbage
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+	
+	/**
+	 * COMBINATIONS
+	 * 
+	 * @param n
+	 * @param k
+	 * @return number of ways to choose k cards from n
+	 */
+	private static long combinations(int n, int k) {
+		long result = 1;
+		for(int i = 0; i < k; i++)
+			result = result * (n - i) / (i + 1);
+		return result;
+	}
+	
+	/**
+	 * Decision
+	 * 
+	 * Stores the expected score for every mask (NaN for masks that are not allowed) and the best mask.
+	 * Ties go to the mask that refreshes fewer cards.
+	 */
+	public static final class Decision {
+
+		private final double[] expected;
+		private final int bestMask;
+
+		public Decision(double[] expected) {
+			this.expected = expected;
+			int best = 0;
+			for(int mask : LEGAL_MASKS)
+				if(expected[mask] > expected[best] || (expected[mask] == expected[best] && Integer.bitCount(mask) < Integer.bitCount(best)))
+					best = mask;
+			this.bestMask = best;
+		}
+
+		public int getBestMask() {
+			return bestMask;
+		}
+
+		public double getExpectedScore(int mask) {
+			return expected[mask];
+		}
+
+		public double getBestExpectedScore() {
+			return expected[bestMask];
+		}
+	
+	}
+
+}
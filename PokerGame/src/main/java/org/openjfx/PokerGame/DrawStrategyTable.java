@@ -0,0 +1,359 @@
+/**
+ * DrawStrategyTable
+ * 
+ * A class used to look up the best cards to refresh from a file worked out in advance, instead of
+ * running the DrawOptimizer for every hand.
+ * 
+ * Two hands that only differ by swapping suits (e.g. every ♠ for a ♡) play exactly the same, so each hand is
+ * first reduced to a canonical form: the suits are renumbered in order of the values they hold, highest first.
+ * This leaves 134,459 different hands. main() runs the DrawOptimizer on each one and writes the best mask and
+ * its expected score to a file. The file is memory-mapped when loaded, so a lookup reads straight from
+ * the mapped file and costs almost nothing on the heap.
+ * 
+ * File layout (big-endian):
+ * 1. Header - MAGIC, VERSION, number of slots (a power of 2), number of hands
+ * 2. Slots - 8 bytes each: canonical hand key + 1 (0 = empty slot), then mask << 24 | expected score * 1024
+ * A slot is found by hashing the key and checking the following slots until the key (or an empty slot) is found.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+
+public class DrawStrategyTable {
+	
+	/** Class constants */
+	final public static String DEFAULT_FILE = "draw-strategy.bin";
+	final public static String FILE_PROPERTY = "pokergame.drawStrategy"; // system property to use a different file
+	final public static int CANONICAL_HANDS = 134_459;
+	final private static int MAGIC = 0x504B4453; // "PKDS"
+	final private static int VERSION = 1;
+	final private static int HEADER_BYTES = 16, SLOT_BYTES = 8;
+	final private static int SLOT_BITS = 18; // 262,144 slots, about half full
+	final private static int MASK_SHIFT = 24, SCORE_MASK = 0xFFFFFF;
+	final private static double SCORE_SCALE = 1024.0;
+	final private static int[][] COMBINATIONS = new int[Card.DECK_SIZE + 1][Table.CARDS_PER_PLAYER + 1]; // n choose k
+	final private static long NO_DEADLINE = Long.MAX_VALUE / 4;
+	
+	/** Class variables */
+	private static DrawStrategyTable defaultTable;
+	private static boolean defaultLoaded;
+	private final MappedByteBuffer buffer;
+	private final int slotMask;
+	
+	static {
+		for(int n = 0; n <= Card.DECK_SIZE; n++) {
+			COMBINATIONS[n][0] = 1;
+			for(int k = 1; k <= Table.CARDS_PER_PLAYER && k <= n; k++)
+				COMBINATIONS[n][k] = COMBINATIONS[n - 1][k - 1] + (k <= n - 1 ? COMBINATIONS[n - 1][k] : 0);
+		}
+	}
+	
+	/**
+	 * CONSTRUCTOR
+	 * 
+	 * Checks the header of a mapped file.
+	 * 
+	 * @param buffer
+	 */
+	private DrawStrategyTable(MappedByteBuffer buffer) {
+		if(buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+			throw new IllegalArgumentException("Not a draw strategy file (or an old version)");
+		int slots = buffer.getInt(8);
+		if(Integer.bitCount(slots) != 1 || buffer.capacity() != HEADER_BYTES + (long) slots * SLOT_BYTES)
+			throw new IllegalArgumentException("Draw strategy file is the wrong size");
+		this.buffer = buffer;
+		this.slotMask = slots - 1;
+	}
+	
+	/**
+	 * LOAD
+	 * 
+	 * Memory-maps a strategy file written by main().
+	 * 
+	 * @param path
+	 * @return the loaded table
+	 * @throws IOException
+	 */
+	public static DrawStrategyTable load(Path path) throws IOException {
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return new DrawStrategyTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+	
+	/**
+	 * GET DEFAULT
+	 * 
+	 * Loads the file named by the FILE_PROPERTY system property (or DEFAULT_FILE) the first time it is called.
+	 * 
+	 * @return the shared table, or null if there is no strategy file
+	 */
+	public static synchronized DrawStrategyTable getDefault() {
+		if(!defaultLoaded) {
+			defaultLoaded = true;
+			Path path = Paths.get(System.getProperty(FILE_PROPERTY, DEFAULT_FILE));
+			if(Files.isReadable(path)) {
+				try {
+					defaultTable = load(path);
+				}
+				catch(IOException | IllegalArgumentException e) {
+					System.err.println("Could not load draw strategy " + path + ": " + e.getMessage());
+				}
+			}
+		}
+		return defaultTable;
+	}
+	
+	/**
+	 * BEST DISCARD
+	 * 
+	 * @param player
+	 * @return the mask of cards the player should refresh (bit i is card i of the sorted hand)
+	 */
+	public int bestDiscard(Player player) {
+		long cards = player.getCards(), suitValues = suitValues(cards);
+		long canonical = canonicalHand(cards, suitValues);
+		int canonicalMask = readSlot(key(canonical)) >>> MASK_SHIFT;
+		// bit r of the canonical mask is the card with the r-th lowest canonical index
+		int mask = 0;
+		for(int i = 0; cards != 0; i++, cards &= cards - 1) {
+			int lower = Long.bitCount(canonical & ((1L << canonicalIndex(suitValues, Long.numberOfTrailingZeros(cards))) - 1));
+			if((canonicalMask & (1 << lower)) != 0) mask |= 1 << i;
+		}
+		return mask;
+	}
+	
+	/**
+	 * EXPECTED SCORE
+	 * 
+	 * @param player
+	 * @return the expected score of the players final hand after the best discard
+	 */
+	public double expectedScore(Player player) {
+		long cards = player.getCards();
+		return (readSlot(key(canonicalHand(cards, suitValues(cards)))) & SCORE_MASK) / SCORE_SCALE;
+	}
+	
+	/**
+	 * READ SLOT
+	 * 
+	 * @param key
+	 * @return the packed mask and score saved for a canonical hand
+	 */
+	private int readSlot(int key) {
+		int slot = hash(key) & slotMask;
+		while(true) {
+			int position = HEADER_BYTES + slot * SLOT_BYTES;
+			int storedKey = buffer.getInt(position);
+			if(storedKey == key + 1) return buffer.getInt(position + 4);
+			if(storedKey == 0) throw new IllegalStateException("Hand missing from draw strategy file");
+			slot = (slot + 1) & slotMask;
+		}
+	}
+	
+	/**
+	 * SUIT VALUES
+	 * 
+	 * @param cards bitboard of a hand
+	 * @return the value bits held in each suit, 16 bits for each suit
+	 */
+	private static long suitValues(long cards) {
+		long suitValues = 0;
+		for(; cards != 0; cards &= cards - 1) {
+			int bit = Long.numberOfTrailingZeros(cards);
+			suitValues |= 1L << ((bit & Card.SUIT_MASK) * 16 + (bit >>> 2));
+		}
+		return suitValues;
+	}
+	
+	/**
+	 * CANONICAL INDEX
+	 * 
+	 * The same renumbering of the suits as canonicalKey(), worked out for one card without any arrays.
+	 * 
+	 * @param suitValues
+	 * @param bit bitboard bit of the card (value * 4 + suit)
+	 * @return canonical deck index of the card
+	 */
+	private static int canonicalIndex(long suitValues, int bit) {
+		int suit = bit & Card.SUIT_MASK, values = (int) (suitValues >>> (suit * 16)) & 0xFFFF, newSuit = 0;
+		for(int t = 0; t < Card.SUITES.length; t++) {
+			int other = (int) (suitValues >>> (t * 16)) & 0xFFFF;
+			if(other > values || (other == values && t < suit)) newSuit++;
+		}
+		return newSuit * Card.VALUES.length + (bit >>> 2);
+	}
+	
+	/**
+	 * CANONICAL HAND
+	 * 
+	 * @param cards bitboard of a hand
+	 * @param suitValues
+	 * @return a set with bit i set for every canonical deck index i in the hand
+	 */
+	private static long canonicalHand(long cards, long suitValues) {
+		long canonical = 0;
+		for(; cards != 0; cards &= cards - 1)
+			canonical |= 1L << canonicalIndex(suitValues, Long.numberOfTrailingZeros(cards));
+		return canonical;
+	}
+	
+	/**
+	 * KEY
+	 * 
+	 * @param canonical set of canonical deck indexes (see canonicalHand())
+	 * @return key of the canonical hand (combinatorial number system, lowest index first)
+	 */
+	private static int key(long canonical) {
+		int key = 0;
+		for(int i = 0; canonical != 0; i++, canonical &= canonical - 1)
+			key += COMBINATIONS[Long.numberOfTrailingZeros(canonical)][i + 1];
+		return key;
+	}
+	
+	/**
+	 * CANONICAL KEY
+	 * 
+	 * Renumbers the suits of a hand so the suit holding the highest set of values becomes suit 0, and so on.
+	 * Suits holding the same values are interchangeable so the order between them does not matter.
+	 * The five canonical deck indexes are then turned into a single number (combinatorial number system).
+	 * 
+	 * @param indexes deck indexes of the five cards, replaced with their canonical indexes
+	 * @return key of the canonical hand
+	 */
+	static int canonicalKey(int[] indexes) {
+		int[] suitValues = new int[Card.SUITES.length];
+		for(int index : indexes)
+			suitValues[index / Card.VALUES.length] |= 1 << (index % Card.VALUES.length);
+		int[] newSuit = new int[Card.SUITES.length];
+		for(int s = 0; s < suitValues.length; s++)
+			for(int t = 0; t < suitValues.length; t++)
+				if(suitValues[t] > suitValues[s] || (suitValues[t] == suitValues[s] && t < s)) newSuit[s]++;
+		for(int i = 0; i < indexes.length; i++)
+			indexes[i] = newSuit[indexes[i] / Card.VALUES.length] * Card.VALUES.length + indexes[i] % Card.VALUES.length;
+		int[] sorted = indexes.clone();
+		Arrays.sort(sorted);
+		int key = 0;
+		for(int i = 0; i < sorted.length; i++)
+			key += COMBINATIONS[sorted[i]][i + 1];
+		return key;
+	}
+	
+	/**
+	 * HASH
+	 * 
+	 * @param key
+	 * @return slot to start searching from (before masking to the table size)
+	 */
+	private static int hash(int key) {
+		return (key * 0x9E3779B1) >>> (32 - SLOT_BITS);
+	}
+	
+	/**
+	 * MAIN
+	 * 
+	 * Works out the best discard for every canonical hand and writes the strategy file.
+	 * Arguments (all optional): file to write, exact limit and samples per mask for the DrawOptimizer.
+	 * With the defaults every mask that refreshes up to 3 cards is exact, which takes a while (run it once).
+	 * 
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		Path path = Paths.get(args.length > 0 ? args[0] : DEFAULT_FILE);
+		int exactLimit = args.length > 1 ? Integer.parseInt(args[1]) : DrawOptimizer.DEFAULT_EXACT_LIMIT;
+		int samplesPerMask = args.length > 2 ? Integer.parseInt(args[2]) : DrawOptimizer.DEFAULT_SAMPLES_PER_MASK;
+		long start = System.nanoTime();
+		int[] keys = canonicalKeys();
+		System.out.printf("%,d canonical hands%n", keys.length);
+		int[] packed = IntStream.range(0, keys.length).parallel()
+				.map(i -> decide(keys[i], exactLimit, samplesPerMask))
+				.toArray();
+		write(path, keys, packed);
+		System.out.printf("Wrote %s in %.1f s%n", path, (System.nanoTime() - start) / 1e9);
+	}
+	
+	/**
+	 * CANONICAL KEYS
+	 * 
+	 * @return the key of every canonical hand, in order
+	 */
+	private static int[] canonicalKeys() {
+		BitSet seen = new BitSet(COMBINATIONS[Card.DECK_SIZE][Table.CARDS_PER_PLAYER]);
+		int[] indexes = new int[Table.CARDS_PER_PLAYER];
+		for(int a = 0; a < Card.DECK_SIZE; a++)
+			for(int b = a + 1; b < Card.DECK_SIZE; b++)
+				for(int c = b + 1; c < Card.DECK_SIZE; c++)
+					for(int d = c + 1; d < Card.DECK_SIZE; d++)
+						for(int e = d + 1; e < Card.DECK_SIZE; e++) {
+							indexes[0] = a; indexes[1] = b; indexes[2] = c; indexes[3] = d; indexes[4] = e;
+							seen.set(canonicalKey(indexes));
+						}
+		return seen.stream().toArray();
+	}
+	
+	/**
+	 * DECIDE
+	 * 
+	 * Runs the DrawOptimizer on one canonical hand, seeded from its key so every run writes the same file.
+	 * 
+	 * @param key
+	 * @param exactLimit
+	 * @param samplesPerMask
+	 * @return packed mask (over the cards in canonical index order) and expected score
+	 */
+	private static int decide(int key, int exactLimit, int samplesPerMask) {
+		Card[] hand = new Card[Table.CARDS_PER_PLAYER];
+		// undo the combinatorial number system, highest card first
+		int remaining = key;
+		for(int k = hand.length, n = Card.DECK_SIZE - 1; k >= 1; k--) {
+			while(COMBINATIONS[n][k] > remaining) n--;
+			hand[k - 1] = Card.ofIndex(n);
+			remaining -= COMBINATIONS[n][k];
+			n--;
+		}
+		DrawOptimizer optimizer = new DrawOptimizer(exactLimit, samplesPerMask, NO_DEADLINE, new SplittableRandom(key));
+		DrawOptimizer.Decision decision = optimizer.evaluate(hand);
+		return (decision.getBestMask() << MASK_SHIFT) | (int) Math.round(decision.getBestExpectedScore() * SCORE_SCALE);
+	}
+	
+	/**
+	 * WRITE
+	 * 
+	 * @param path
+	 * @param keys
+	 * @param packed
+	 * @throws IOException
+	 */
+	private static void write(Path path, int[] keys, int[] packed) throws IOException {
+		int slots = 1 << SLOT_BITS;
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + slots * SLOT_BYTES);
+		buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, slots).putInt(12, keys.length);
+		for(int i = 0; i < keys.length; i++) {
+			int slot = hash(keys[i]) & (slots - 1);
+			while(buffer.getInt(HEADER_BYTES + slot * SLOT_BYTES) != 0)
+				slot = (slot + 1) & (slots - 1);
+			buffer.putInt(HEADER_BYTES + slot * SLOT_BYTES, keys[i] + 1);
+			buffer.putInt(HEADER_BYTES + slot * SLOT_BYTES + 4, packed[i]);
+		}
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while(buffer.hasRemaining())
+				channel.write(buffer);
+		}
+	}
+
+}
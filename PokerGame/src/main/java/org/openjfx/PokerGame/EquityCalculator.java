@@ -0,0 +1,196 @@
+/**
+ * EquityCalculator
+ * 
+ * A class used to estimate how often a hand wins, ties or loses against a random opponent hand.
+ * Opponent hands are sampled from the 47 cards left after the hand is removed and ranked with HandEvaluator,
+ * the same ranking Player.checkHand() produces.
+ * 
+ * The samples are split across a fork-join pool. Every task gets its own generator split from the
+ * parent task's generator and keeps its own counts, the counts are only added together when tasks join,
+ * so there is no shared mutable state. Sampling stops at the sample budget or when the time budget runs out.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+
+public class EquityCalculator {
+	
+	/** Class constants */
+	final public static long DEFAULT_SAMPLES = 100_000;
+	final private static int SAMPLES_PER_TASK = 16_384; // tasks with more samples than this are split in two
+	final private static int SAMPLES_PER_DEADLINE_CHECK = 1_024;
+	final private static int WINS = 0, TIES = 1, LOSSES = 2;
+	final private static long NO_DEADLINE = Long.MAX_VALUE;
+	
+	/** Class variables */
+	private ForkJoinPool pool;
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * Uses the common fork-join pool (one worker per core).
+	 */
+	public EquityCalculator() {
+		this(ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * @param pool
+	 */
+	public EquityCalculator(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+	
+	/**
+	 * CALCULATE (OVERLOADED)
+	 * 
+	 * Estimates the equity of a players current hand with the default sample budget and no time limit.
+	 * 
+	 * @param player
+	 * @return the estimated win, tie and loss probabilities
+	 */
+	public Equity calculate(Player player) {
+		Card[] hand = new Card[Table.CARDS_PER_PLAYER];
+		for(int i = 0; i < hand.length; i++)
+			hand[i] = player.getCard(i);
+		return calculate(hand, DEFAULT_SAMPLES, Long.MAX_VALUE, new SplittableRandom());
+	}
+	
+	/**
+	 * CALCULATE (OVERLOADED)
+	 * 
+	 * Estimates the equity of a five card hand against a random five card hand from the remaining cards.
+	 * Stops after maxSamples opponent hands or once timeBudgetNanos has passed, whichever comes first
+	 * (Long.MAX_VALUE means no time limit).
+	 * Passing in a seeded generator makes the result repeatable when there is no time limit.
+	 * 
+	 * @param hand
+	 * @param maxSamples
+	 * @param timeBudgetNanos
+	 * @param random
+	 * @return the estimated win, tie and loss probabilities
+	 */
+	public Equity calculate(Card[] hand, long maxSamples, long timeBudgetNanos, SplittableRandom random) {
+		int[] remaining = new int[Card.DECK_SIZE - hand.length];
+		long used = 0;
+		for(Card card : hand)
+			used |= 1L << card.getIndex();
+		for(int i = 0, j = 0; i < Card.DECK_SIZE; i++)
+			if((used & (1L << i)) == 0) remaining[j++] = Card.ofIndex(i).getBits();
+		int score = HandEvaluator.evaluate(hand);
+		long deadline = timeBudgetNanos == Long.MAX_VALUE ? NO_DEADLINE : System.nanoTime() + timeBudgetNanos;
+		long[] counts = pool.invoke(new SampleTask(score, remaining, maxSamples, deadline, random));
+		return new Equity(counts[WINS], counts[TIES], counts[LOSSES]);
+	}
+	
+	/**
+	 * SampleTask
+	 * 
+	 * Samples opponent hands, splitting itself in two while it has more than SAMPLES_PER_TASK to do.
+	 */
+	private static class SampleTask extends RecursiveTask<long[]> {
+
+		private static final long serialVersionUID = 1L;
+		private final int score;
+		private final int[] remaining; // only read, every leaf works on its own copy
+		private final long samples, deadline;
+		private final transient SplittableRandom random; // not serializable, a task is never serialized
+
+		SampleTask(int score, int[] remaining, long samples, long deadline, SplittableRandom random) {
+			this.score = score;
+			this.remaining = remaining;
+			this.samples = samples;
+			this.deadline = deadline;
+			this.random = random;
+		}
+
+		@Override
+		protected long[] compute() {
+			if(samples > SAMPLES_PER_TASK) {
+				SampleTask left = new SampleTask(score, remaining, samples / 2, deadline, random.split());
+				SampleTask right = new SampleTask(score, remaining, samples - samples / 2, deadline, random);
+				left.fork();
+				long[] counts = right.compute();
+				long[] leftCounts = left.join();
+				for(int i = 0; i < counts.length; i++)
+					counts[i] += leftCounts[i];
+				return counts;
+			}
+			return sample();
+		}
+
+		/**
+		 * SAMPLE
+		 * 
+		 * Deals opponent hands with five steps of a Fisher–Yates shuffle on a private copy of the remaining cards.
+		 * 
+		 * @return counts of wins, ties and losses
+		 */
+		private long[] sample() {
+			long[] counts = new long[3];
+			int[] cards = remaining.clone();
+			int n = cards.length;
+			for(long done = 0; done < samples; done++) {
+				if(deadline != NO_DEADLINE && done % SAMPLES_PER_DEADLINE_CHECK == 0 && System.nanoTime() - deadline > 0) break;
+				for(int i = 0; i < Table.CARDS_PER_PLAYER; i++) {
+					int picked = i + random.nextInt(n - i);
+					int temp = cards[i];
+					cards[i] = cards[picked];
+					cards[picked] = temp;
+				}
+				int opponent = HandEvaluator.evaluate(cards[0], cards[1], cards[2], cards[3], cards[4]);
+				if(score > opponent) counts[WINS]++;
+				else if(score == opponent) counts[TIES]++;
+				else counts[LOSSES]++;
+			}
+			return counts;
+		}
+	
+	}
+	
+	/**
+	 * Equity
+	 * 
+	 * Stores the result of a calculation.
+	 */
+	public static final class Equity {
+
+		private final long wins, ties, losses;
+
+		public Equity(long wins, long ties, long losses) {
+			this.wins = wins;
+			this.ties = ties;
+			this.losses = losses;
+		}
+
+		public long getSamples() {
+			return wins + ties + losses;
+		}
+
+		public double getWin() {
+			return getSamples() == 0 ? 0 : (double) wins / getSamples();
+		}
+
+		public double getTie() {
+			return getSamples() == 0 ? 0 : (double) ties / getSamples();
+		}
+
+		public double getLoss() {
+			return getSamples() == 0 ? 0 : (double) losses / getSamples();
+		}
+
+		public String toString() {
+			return String.format("Win %.1f%%  Tie %.1f%%  Lose %.1f%%", getWin() * 100, getTie() * 100, getLoss() * 100);
+		}
+	
+	}
+
+}
@@ -0,0 +1,468 @@
+/**
+ * GameServer
+ * 
+ * A class used to host any number of Tables over a line based TCP protocol on localhost,
+ * so one JVM can serve many players (people or bots) instead of one JavaFX window each.
+ * 
+ * Every connection is served by its own virtual thread, so idle connections only cost a small amount of memory.
+ * Every Table is only ever used through its own SerialExecutor, which runs one action at a time in the order
+ * they were sent, so connections sharing a table never use it at the same time (a Table is not thread safe).
+ * Without a strategy file the computer refreshes with DrawOptimizer.quick(), the default optimizer would hold up
+ * the table for its whole 20 ms budget on every REFRESH and SUGGEST.
+ * 
+ * The protocol is one command per line and exactly one reply line per command (UTF-8).
+ * Replies start with "OK" followed by the state of the table, or "ERR" followed by the reason.
+ * The commands follow the buttons in Main:
+ * 1. NEW [seed] - creates a table and sits you at it
+ * 2. JOIN id - sits you at an existing table (all connections at a table play the same seat)
+ * 3. STATE - the state of the table
+ * 4. OPEN, REFRESH [positions], CHECK, BET, SUBMIT amount, NEXT - the same as the buttons in Main
+ *    (REFRESH takes the positions 1-5 of the cards to refresh, e.g. "REFRESH 1 2 5")
+ * 5. SUGGEST - the positions the computer would refresh in your place
+ *    ODDS [positions] - the exact chance of finishing in each category after refreshing those positions
+ *    (odds=... lists them in the order of Table.OUTCOMES, from High Card up)
+ * 6. PING - replies "OK PONG" without using a table
+ * 7. QUIT - closes the connection
+ * 
+ * A state reply looks like:
+ * OK table=1 round=3 stage=REFRESHED opener=YOU result=NONE pot=2 you=8 computer=8 hand=♠2,♡2,♣7,♢9,♠A maxBet=0
+ * The computer's hand is added once the round is over (computerHand=...).
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class GameServer {
+	
+	/** Class constants */
+	final public static int DEFAULT_PORT = 5050;
+	final public static int BACKLOG = 4096; // lets a burst of connections queue while they are accepted
+	final public static String[] STAGES = new String[] {"DEALT", "OPENED", "REFRESHED", "BETTING", "ROUND_OVER", "GAME_OVER"};
+	final public static String[] SEATS = new String[] {"NOBODY", "COMPUTER", "YOU"}; // indexed by seat + 1
+	final public static String[] RESULTS = new String[] {"NONE", "COMPUTER_WINS", "YOU_WIN", "DRAW", "COMPUTER_FOLDS"}; // indexed by result + 1
+	
+	/** Class variables */
+	private final Map<Integer, Session> sessions = new ConcurrentHashMap<>();
+	private final AtomicInteger nextTableId = new AtomicInteger(1);
+	private final AtomicInteger connections = new AtomicInteger();
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private ServerSocket serverSocket;
+	
+	/**
+	 * MAIN
+	 * 
+	 * Arguments (optional): port to listen on (DEFAULT_PORT).
+	 * 
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		Metrics.getDefault().startDumping();
+		GameServer server = new GameServer();
+		server.start(args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT);
+		System.out.println("Listening on localhost:" + server.getPort());
+		server.serve();
+	}
+	
+	/**
+	 * START
+	 * 
+	 * Binds to the port on the loopback address only (0 picks a free port).
+	 * 
+	 * @param port
+	 * @throws IOException
+	 */
+	public void start(int port) throws IOException {
+		serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+	}
+	
+	/**
+	 * SERVE
+	 * 
+	 * Accepts connections until the server is closed, each one on its own virtual thread.
+	 * 
+	 * @throws IOException
+	 */
+	public void serve() throws IOException {
+		while(!serverSocket.isClosed()) {
+			Socket socket;
+			try {
+				socket = serverSocket.accept();
+			}
+			catch(IOException e) {
+				if(serverSocket.isClosed()) return;
+				throw e;
+			}
+			socket.setTcpNoDelay(true); // replies are small and each one is waited for
+			executor.execute(() -> handle(socket));
+		}
+	}
+	
+	/**
+	 * CLOSE
+	 * 
+	 * Stops accepting connections.
+	 * 
+	 * @throws IOException
+	 */
+	public void close() throws IOException {
+		serverSocket.close();
+		executor.shutdown();
+	}
+	
+	/**
+	 * HANDLE
+	 * 
+	 * Reads commands from one connection and writes a reply to each, until QUIT or the connection closes.
+	 * 
+	 * @param socket
+	 */
+	private void handle(Socket socket) {
+		connections.incrementAndGet();
+		Session session = null;
+		try(socket;
+				BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+				BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while((line = in.readLine()) != null) {
+				String[] words = line.trim().split("\\s+");
+				String command = words[0].toUpperCase();
+				String reply;
+				if(command.equals("QUIT")) break;
+				try {
+					if(command.equals("PING")) reply = "OK PONG";
+					else if(command.equals("NEW") || command.equals("JOIN")) {
+						Session joined = command.equals("NEW") ? create(words) : join(words);
+						if(session != null) leave(session);
+						session = joined;
+						reply = "OK " + session.call(session::describe);
+					}
+					else if(session == null) reply = "ERR Not at a table, send NEW or JOIN first";
+					else reply = "OK " + session.call(new Action(session, command, words));
+				}
+				catch(IllegalArgumentException | IllegalStateException e) {
+					reply = "ERR " + e.getMessage();
+				}
+				out.write(reply);
+				out.newLine();
+				out.flush();
+			}
+		}
+		catch(IOException e) {
+			// the client went away, nothing to reply to
+		}
+		finally {
+			if(session != null) leave(session);
+			connections.decrementAndGet();
+		}
+	}
+	
+	/**
+	 * CREATE
+	 * 
+	 * @param words NEW and an optional seed
+	 * @return a new session, already joined
+	 */
+	private Session create(String[] words) {
+		int id = nextTableId.getAndIncrement();
+		Table table = words.length > 1 ? new Table(parseLong(words[1])) : new Table();
+		if(!table.hasDrawStrategyTable()) table.setDrawOptimizer(DrawOptimizer.quick(words.length > 1 ? new SplittableRandom(parseLong(words[1])) : new SplittableRandom()));
+		Session session = new Session(id, table, new SerialExecutor(executor));
+		session.seated.incrementAndGet();
+		sessions.put(id, session);
+		return session;
+	}
+	
+	/**
+	 * JOIN
+	 * 
+	 * @param words JOIN and the table id
+	 * @return the session, already joined
+	 */
+	private Session join(String[] words) {
+		if(words.length < 2) throw new IllegalArgumentException("JOIN needs a table id");
+		int id = (int) parseLong(words[1]);
+		// joining inside compute() means the table cannot be removed by leave() at the same time
+		Session session = sessions.computeIfPresent(id, (key, existing) -> {
+			existing.seated.incrementAndGet();
+			return existing;
+		});
+		if(session == null) throw new IllegalArgumentException("No table " + id);
+		return session;
+	}
+	
+	/**
+	 * LEAVE
+	 * 
+	 * Removes the table once the last connection at it has left.
+	 * 
+	 * @param session
+	 */
+	private void leave(Session session) {
+		sessions.computeIfPresent(session.id, (key, existing) -> existing.seated.decrementAndGet() == 0 ? null : existing);
+	}
+	
+	/**
+	 * PARSE LONG
+	 * 
+	 * @param word
+	 * @return the number
+	 */
+	private static long parseLong(String word) {
+		try {
+			return Long.parseLong(word);
+		}
+		catch(NumberFormatException e) {
+			throw new IllegalArgumentException("Not a number: " + word);
+		}
+	}
+	
+	/**
+	 * GETTERS
+	 */
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+	
+	public int getConnections() {
+		return connections.get();
+	}
+	
+	public int getTables() {
+		return sessions.size();
+	}
+	
+	/**
+	 * Action
+	 * 
+	 * One of the table commands, run on the table's own executor.
+	 */
+	private static final class Action implements Callable<String> {
+
+		private final Session session;
+		private final String command;
+		private final String[] words;
+
+		Action(Session session, String command, String[] words) {
+			this.session = session;
+			this.command = command;
+			this.words = words;
+		}
+
+		@Override
+		public String call() {
+			Table table = session.table;
+			switch(command) {
+				case "STATE":
+				case "SUGGEST":
+				case "ODDS":
+					break;
+				case "OPEN":
+					table.open();
+					break;
+				case "REFRESH":
+					table.refresh(positions());
+					break;
+				case "CHECK":
+					table.check();
+					break;
+				case "BET":
+					session.maxBet = table.bet();
+					break;
+				case "SUBMIT":
+					if(words.length < 2) throw new IllegalArgumentException("SUBMIT needs an amount");
+					table.submitBet((int) parseLong(words[1]));
+					session.maxBet = 0;
+					break;
+				case "NEXT":
+					if(table.isGameOver()) table.setUpGame();
+					else table.nextRound();
+					session.maxBet = 0;
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown command " + command);
+			}
+			String state = session.describe();
+			if(command.equals("SUGGEST")) {
+				if(table.getStage() != Table.OPENED) throw new IllegalStateException("Cards can only be refreshed after opening");
+				int suggested = table.getSuggestedRefresh(Table.YOU);
+				StringBuilder positions = new StringBuilder(" suggest=");
+				for(int i = 0; i < Table.CARDS_PER_PLAYER; i++)
+					if((suggested & (1 << i)) != 0) positions.append(i + 1);
+				state += positions;
+			}
+			if(command.equals("ODDS")) {
+				double[] odds = table.getDrawOdds(Table.YOU, positions());
+				StringBuilder reply = new StringBuilder(" odds=");
+				for(int category = 0; category < odds.length; category++)
+					reply.append(category == 0 ? "" : ",").append(String.format("%.4f", odds[category]));
+				state += reply;
+			}
+			return state;
+		}
+
+		/**
+		 * POSITIONS
+		 * 
+		 * @return mask of the card positions (1-5) after the command
+		 */
+		private int positions() {
+			int mask = 0;
+			for(int i = 1; i < words.length; i++) {
+				long position = parseLong(words[i]);
+				if(position < 1 || position > Table.CARDS_PER_PLAYER) throw new IllegalArgumentException("No card at position " + words[i]);
+				mask |= 1 << (position - 1);
+			}
+			return mask;
+		}
+	
+	}
+	
+	/**
+	 * Session
+	 * 
+	 * A table, the connections seated at it and the executor that runs its actions one at a time.
+	 */
+	private static final class Session {
+
+		private final int id;
+		private final Table table;
+		private final SerialExecutor executor;
+		private final AtomicInteger seated = new AtomicInteger();
+		private int maxBet; // only used on the executor
+
+		Session(int id, Table table, SerialExecutor executor) {
+			this.id = id;
+			this.table = table;
+			this.executor = executor;
+		}
+
+		/**
+		 * CALL
+		 * 
+		 * Runs the action on the table's executor and waits for its reply.
+		 * 
+		 * @param action
+		 * @return the reply
+		 */
+		String call(Callable<String> action) {
+			CompletableFuture<String> reply = new CompletableFuture<>();
+			executor.execute(() -> {
+				try {
+					reply.complete(action.call());
+				}
+				catch(Throwable e) {
+					reply.completeExceptionally(e);
+				}
+			});
+			try {
+				return reply.get();
+			}
+			catch(ExecutionException e) {
+				if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+				throw new IllegalStateException(e.getCause());
+			}
+			catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted");
+			}
+		}
+
+		/**
+		 * DESCRIBE
+		 * 
+		 * @return the state of the table as key=value pairs
+		 */
+		String describe() {
+			StringBuilder state = new StringBuilder();
+			state.append("table=").append(id)
+					.append(" round=").append(table.getRound())
+					.append(" stage=").append(STAGES[table.getStage()])
+					.append(" opener=").append(SEATS[table.getOpener() + 1])
+					.append(" result=").append(RESULTS[table.getResult() + 1])
+					.append(" pot=").append(table.getPot())
+					.append(" you=").append(table.getYou().getCoins())
+					.append(" computer=").append(table.getComputer().getCoins())
+					.append(" hand=");
+			appendHand(state, table.getYou());
+			state.append(" maxBet=").append(maxBet);
+			if(table.getStage() >= Table.ROUND_OVER) {
+				state.append(" computerHand=");
+				appendHand(state, table.getComputer());
+			}
+			return state.toString();
+		}
+
+		private static void appendHand(StringBuilder state, Player player) {
+			for(int i = 0; i < Table.CARDS_PER_PLAYER; i++)
+				state.append(i == 0 ? "" : ",").append(player.getCard(i));
+		}
+	
+	}
+	
+	/**
+	 * SerialExecutor
+	 * 
+	 * Runs tasks one at a time in the order they were given, on threads borrowed from another executor.
+	 * Needs no thread of its own while it has nothing to do.
+	 */
+	private static final class SerialExecutor implements Executor {
+
+		private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean running = new AtomicBoolean();
+		private final Executor executor;
+
+		SerialExecutor(Executor executor) {
+			this.executor = executor;
+		}
+
+		@Override
+		public void execute(Runnable task) {
+			tasks.add(task);
+			schedule();
+		}
+
+		private void schedule() {
+			if(!tasks.isEmpty() && running.compareAndSet(false, true)) executor.execute(this::drain);
+		}
+
+		private void drain() {
+			try {
+				Runnable task;
+				while((task = tasks.poll()) != null)
+					task.run();
+			}
+			finally {
+				running.set(false);
+				schedule(); // a task may have been added after the last poll
+			}
+		}
+	
+	}
+
+}
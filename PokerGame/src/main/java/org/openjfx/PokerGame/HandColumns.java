@@ -0,0 +1,164 @@
+/**
+ * HandColumns
+ * 
+ * A class used to read a columnar file of rounds made by HandColumnsWriter from a hand history.
+ * 
+ * Every round is a row with the COLUMNS below (all ints, -1 where the round did not get that far).
+ * Rows are split into blocks of BLOCK_ROWS, and each block stores each column on its own:
+ * the smallest value in the block (min) is taken away from every value and what is left is packed
+ * into just enough bits for the largest one (frame of reference bit packing).
+ * The min and max of every column in every block are kept in a directory at the end of the file,
+ * so a query only unpacks the columns it uses and can skip any block whose range cannot match.
+ * 
+ * File layout (big-endian):
+ * 1. Header - MAGIC, VERSION, number of rows (long), number of columns, BLOCK_ROWS, directory position (long)
+ * 2. The packed columns, one after another for each block
+ * 3. Directory - for every block and column: position (long), min, max, bits per value
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+public class HandColumns {
+	
+	/** Class constants */
+	final public static int MAGIC = 0x504B4843; // "PKHC"
+	final public static int VERSION = 2; // 2: score columns hold scores with kickers (see HandEvaluator)
+	final public static int HEADER_SIZE = 32;
+	final public static int DIRECTORY_ENTRY_SIZE = 20;
+	final public static int BLOCK_ROWS = 1 << 16;
+	final public static String[] COLUMNS = new String[] {"ROUND", "OPENER", "YOUR_COINS", "COMPUTER_COINS",
+			"COMPUTER_DEAL", "YOUR_DEAL", "COMPUTER_REFRESHED", "YOUR_REFRESHED", "COMPUTER_FINAL", "YOUR_FINAL",
+			"BET", "RESULT", "POT"};
+	
+	/** Columns (COMPUTER_DEAL to YOUR_FINAL are scores, use HandEvaluator.category() for the OUTCOMES index) */
+	final public static int ROUND = 0, OPENER = 1, YOUR_COINS = 2, COMPUTER_COINS = 3, COMPUTER_DEAL = 4, YOUR_DEAL = 5,
+			COMPUTER_REFRESHED = 6, YOUR_REFRESHED = 7, COMPUTER_FINAL = 8, YOUR_FINAL = 9, BET = 10, RESULT = 11, POT = 12;
+	
+	/** Class variables */
+	private MappedByteBuffer directory;
+	private MappedByteBuffer[] data; // one window per block, so files over 2 GB can be read
+	private long rows;
+	private int blocks;
+	
+	/**
+	 * CONSTRUCTOR
+	 * 
+	 * Maps the file into memory.
+	 * 
+	 * @param path
+	 * @throws IOException
+	 */
+	public HandColumns(Path path) throws IOException {
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			if(header.getInt(0) != MAGIC) throw new IOException(path + " is not a HandColumns file");
+			if(header.getInt(4) != VERSION) throw new IOException(path + " is HandColumns version " + header.getInt(4) + ", only version " + VERSION
+					+ " can be read (write it again from a new hand history)");
+			if(header.getInt(16) != COLUMNS.length || header.getInt(20) != BLOCK_ROWS) throw new IOException(path + " has a different layout");
+			rows = header.getLong(8);
+			blocks = (int) ((rows + BLOCK_ROWS - 1) / BLOCK_ROWS);
+			long directoryPosition = header.getLong(24);
+			directory = channel.map(FileChannel.MapMode.READ_ONLY, directoryPosition, (long) blocks * COLUMNS.length * DIRECTORY_ENTRY_SIZE);
+			data = new MappedByteBuffer[blocks];
+			for(int block = 0; block < blocks; block++) {
+				long start = position(block, 0);
+				long end = block + 1 < blocks ? position(block + 1, 0) : directoryPosition;
+				data[block] = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+			}
+		}
+	}
+	
+	/**
+	 * READ
+	 * 
+	 * Unpacks one column of one block.
+	 * 
+	 * @param block
+	 * @param column
+	 * @param values array of at least getBlockRows(block) to unpack into
+	 * @return number of rows in the block
+	 */
+	public int read(int block, int column, int[] values) {
+		int count = getBlockRows(block);
+		int min = getMin(block, column), bits = getBits(block, column);
+		if(bits == 0) {
+			for(int i = 0; i < count; i++)
+				values[i] = min;
+			return count;
+		}
+		MappedByteBuffer buffer = data[block];
+		int offset = (int) (position(block, column) - position(block, 0));
+		long mask = (1L << bits) - 1;
+		for(int i = 0; i < count; i++) {
+			long bit = (long) i * bits;
+			int word = offset + (int) (bit >>> 6) * Long.BYTES, shift = (int) (bit & 63);
+			long packed = buffer.getLong(word) >>> shift;
+			if(shift + bits > 64) packed |= buffer.getLong(word + Long.BYTES) << (64 - shift);
+			values[i] = min + (int) (packed & mask);
+		}
+		return count;
+	}
+	
+	/**
+	 * PACKED LONGS
+	 * 
+	 * @param count
+	 * @param bits
+	 * @return number of longs needed to pack count values of bits each
+	 */
+	static int packedLongs(int count, int bits) {
+		return (int) (((long) count * bits + 63) >>> 6);
+	}
+	
+	/**
+	 * POSITION
+	 * 
+	 * @param block
+	 * @param column
+	 * @return position of the packed column in the file
+	 */
+	private long position(int block, int column) {
+		return directory.getLong(entry(block, column));
+	}
+	
+	private int entry(int block, int column) {
+		return (block * COLUMNS.length + column) * DIRECTORY_ENTRY_SIZE;
+	}
+	
+	/**
+	 * GETTERS
+	 */
+	public long getRows() {
+		return rows;
+	}
+	
+	public int getBlocks() {
+		return blocks;
+	}
+	
+	public int getBlockRows(int block) {
+		return (int) Math.min(BLOCK_ROWS, rows - (long) block * BLOCK_ROWS);
+	}
+	
+	public int getMin(int block, int column) {
+		return directory.getInt(entry(block, column) + 8);
+	}
+	
+	public int getMax(int block, int column) {
+		return directory.getInt(entry(block, column) + 12);
+	}
+	
+	public int getBits(int block, int column) {
+		return directory.getInt(entry(block, column) + 16);
+	}
+
+}
@@ -0,0 +1,243 @@
+/**
+ * HandColumnsWriter
+ * 
+ * A class used to turn a hand history file into a HandColumns file, one row for every round.
+ * 
+ * The history is read through memory-mapped windows and the rows are collected a block at a time,
+ * so only one block (BLOCK_ROWS rows of every column) is held in memory however big the history is.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+
+public class HandColumnsWriter implements AutoCloseable {
+	
+	/** Class variables */
+	private FileChannel channel;
+	private int[][] block = new int[HandColumns.COLUMNS.length][HandColumns.BLOCK_ROWS];
+	private int[] row = new int[HandColumns.COLUMNS.length];
+	private int blockRows;
+	private boolean inRound;
+	private long rows;
+	private ByteBuffer directory = ByteBuffer.allocate(HandColumns.COLUMNS.length * HandColumns.DIRECTORY_ENTRY_SIZE * 16);
+	
+	/**
+	 * MAIN
+	 * 
+	 * Arguments: hand history file, columns file to create.
+	 * 
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length < 2) {
+			System.out.println("Usage: HandColumnsWriter history columns");
+			return;
+		}
+		long start = System.nanoTime();
+		HandColumnsWriter writer = new HandColumnsWriter(Paths.get(args[1]));
+		try(writer) {
+			writer.addHistory(Paths.get(args[0]));
+		}
+		System.out.printf("Wrote %,d rounds (%,d bytes) in %.2f s%n", writer.rows, Files.size(Paths.get(args[1])), (System.nanoTime() - start) / 1e9);
+	}
+	
+	/**
+	 * CONSTRUCTOR
+	 * 
+	 * Creates (or replaces) the columns file.
+	 * 
+	 * @param path
+	 * @throws IOException
+	 */
+	public HandColumnsWriter(Path path) throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		channel.position(HandColumns.HEADER_SIZE);
+	}
+	
+	/**
+	 * ADD HISTORY
+	 * 
+	 * Adds a row for every round in a hand history file.
+	 * 
+	 * @param path
+	 * @throws IOException
+	 */
+	public void addHistory(Path path) throws IOException {
+		try(FileChannel history = FileChannel.open(path, StandardOpenOption.READ)) {
+			HandHistory.checkHeader(history, path);
+			long size = history.size() - history.size() % HandHistory.RECORD_SIZE;
+			for(long position = HandHistory.HEADER_SIZE; position < size; position += HandHistoryReplayer.WINDOW_SIZE) {
+				MappedByteBuffer window = history.map(FileChannel.MapMode.READ_ONLY, position, Math.min(HandHistoryReplayer.WINDOW_SIZE, size - position));
+				for(int offset = 0; offset < window.limit(); offset += HandHistory.RECORD_SIZE)
+					addRecord(window.get(offset), window.get(offset + HandHistory.SEAT), window.get(offset + HandHistory.A),
+							window.get(offset + HandHistory.B), window.getInt(offset + HandHistory.VALUE));
+			}
+		}
+		endRound();
+	}
+	
+	/**
+	 * ADD RECORD
+	 * 
+	 * Fills in the current row from one hand history record.
+	 * 
+	 * @param type
+	 * @param seat
+	 * @param a
+	 * @param b
+	 * @param value
+	 * @throws IOException
+	 */
+	private void addRecord(int type, int seat, int a, int b, int value) throws IOException {
+		if(type == HandHistory.ROUND) {
+			endRound();
+			Arrays.fill(row, -1);
+			row[HandColumns.ROUND] = value;
+			row[HandColumns.OPENER] = seat;
+			row[HandColumns.YOUR_COINS] = a;
+			row[HandColumns.COMPUTER_COINS] = b;
+			inRound = true;
+			return;
+		}
+		if(!inRound) return; // the start of a round that was not recorded
+		switch(type) {
+			case HandHistory.DEAL:
+				row[seat == Table.COMPUTER ? HandColumns.COMPUTER_DEAL : HandColumns.YOUR_DEAL] = value;
+				row[HandColumns.POT] = a;
+				break;
+			case HandHistory.OPEN:
+				row[HandColumns.POT] = a;
+				break;
+			case HandHistory.REFRESH:
+				row[seat == Table.COMPUTER ? HandColumns.COMPUTER_REFRESHED : HandColumns.YOUR_REFRESHED] = Integer.bitCount(a & 0xFF);
+				row[seat == Table.COMPUTER ? HandColumns.COMPUTER_FINAL : HandColumns.YOUR_FINAL] = value;
+				break;
+			case HandHistory.BET:
+				row[HandColumns.BET] = a;
+				break;
+			case HandHistory.CALL:
+				row[HandColumns.POT] = b;
+				break;
+			case HandHistory.FOLD:
+				row[HandColumns.RESULT] = Table.COMPUTER_FOLDS;
+				row[HandColumns.POT] = a;
+				break;
+			case HandHistory.SHOWDOWN:
+				row[HandColumns.RESULT] = seat;
+				row[HandColumns.POT] = a;
+				break;
+		}
+	}
+	
+	/**
+	 * END ROUND
+	 * 
+	 * Adds the current row to the block, writing the block when it is full.
+	 * 
+	 * @throws IOException
+	 */
+	private void endRound() throws IOException {
+		if(!inRound) return;
+		for(int column = 0; column < row.length; column++)
+			block[column][blockRows] = row[column];
+		inRound = false;
+		rows++;
+		if(++blockRows == HandColumns.BLOCK_ROWS) writeBlock();
+	}
+	
+	/**
+	 * WRITE BLOCK
+	 * 
+	 * Packs every column of the block and adds their positions and ranges to the directory.
+	 * 
+	 * @throws IOException
+	 */
+	private void writeBlock() throws IOException {
+		if(blockRows == 0) return;
+		for(int column = 0; column < block.length; column++) {
+			int[] values = block[column];
+			int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+			for(int i = 0; i < blockRows; i++) {
+				min = Math.min(min, values[i]);
+				max = Math.max(max, values[i]);
+			}
+			int bits = 64 - Long.numberOfLeadingZeros((long) max - min);
+			long[] packed = new long[HandColumns.packedLongs(blockRows, bits)];
+			if(bits > 0) {
+				for(int i = 0; i < blockRows; i++) {
+					long bit = (long) i * bits, delta = (long) values[i] - min;
+					int word = (int) (bit >>> 6), shift = (int) (bit & 63);
+					packed[word] |= delta << shift;
+					if(shift + bits > 64) packed[word + 1] |= delta >>> (64 - shift);
+				}
+			}
+			if(directory.remaining() < HandColumns.DIRECTORY_ENTRY_SIZE) directory = grow(directory);
+			directory.putLong(channel.position()).putInt(min).putInt(max).putInt(bits);
+			ByteBuffer bytes = ByteBuffer.allocate(packed.length * Long.BYTES);
+			bytes.asLongBuffer().put(packed);
+			writeFully(bytes);
+		}
+		blockRows = 0;
+	}
+	
+	/**
+	 * GROW
+	 * 
+	 * @param buffer
+	 * @return a buffer twice the size holding the same bytes
+	 */
+	private static ByteBuffer grow(ByteBuffer buffer) {
+		ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() * 2);
+		buffer.flip();
+		return bigger.put(buffer);
+	}
+	
+	/**
+	 * WRITE FULLY
+	 * 
+	 * @param bytes
+	 * @throws IOException
+	 */
+	private void writeFully(ByteBuffer bytes) throws IOException {
+		while(bytes.hasRemaining())
+			channel.write(bytes);
+	}
+	
+	/**
+	 * CLOSE
+	 * 
+	 * Writes the last block, the directory and the header, and closes the file.
+	 * 
+	 * @throws IOException
+	 */
+	@Override
+	public void close() throws IOException {
+		if(!channel.isOpen()) return;
+		endRound();
+		writeBlock();
+		long directoryPosition = channel.position();
+		directory.flip();
+		writeFully(directory);
+		ByteBuffer header = ByteBuffer.allocate(HandColumns.HEADER_SIZE);
+		header.putInt(HandColumns.MAGIC).putInt(HandColumns.VERSION).putLong(rows).putInt(HandColumns.COLUMNS.length)
+				.putInt(HandColumns.BLOCK_ROWS).putLong(directoryPosition).flip();
+		channel.position(0);
+		writeFully(header);
+		channel.close();
+	}
+
+}
@@ -0,0 +1,137 @@
+/**
+ * HandEnumerator
+ * 
+ * A class used to rank every one of the 2,598,960 possible five card hands and count how many fall into
+ * each of the OUTCOMES categories.
+ * 
+ * The hands are split up by their lowest card and the groups are ranked in parallel, each group
+ * counts into its own array and the arrays are added together at the end.
+ * Each group is ranked in batches of BATCH_SIZE hands by BatchEvaluator (with the Vector API if it is loaded).
+ * The counts are known exactly, so this also checks the evaluator (e.g. 40 straight flushes including
+ * the 4 royal flushes, 624 four of a kinds). Run main() to print the counts and compare them.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.util.stream.IntStream;
+
+
+public final class HandEnumerator {
+	
+	/** Class constants */
+	final public static long TOTAL_HANDS = 2_598_960;
+	final public static int BATCH_SIZE = 4096;
+	final public static long[] EXPECTED_COUNTS = new long[] {1_302_540, 1_098_240, 123_552, 54_912, 10_200, 5_108,
+			3_744, 624, 36, 4};
+	
+	/**
+	 * CONSTRUCTOR
+	 * 
+	 * Not used, all methods are static.
+	 */
+	private HandEnumerator() {
+	}
+	
+	/**
+	 * MAIN
+	 * 
+	 * Prints the count for each category next to the expected count.
+	 * Exits with status 1 if any count is wrong. The hands are ranked once before the timed run,
+	 * as the first run mostly times the JIT compiler (the vector code is very slow until it is compiled).
+	 * 
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		countCategories();
+		long start = System.nanoTime();
+		long[] counts = countCategories();
+		long time = System.nanoTime() - start;
+		boolean correct = true;
+		for(int i = counts.length - 1; i >= 0; i--) {
+			System.out.printf("%-16s %,10d %,10d%s%n", Table.OUTCOMES[i], counts[i], EXPECTED_COUNTS[i], counts[i] == EXPECTED_COUNTS[i] ? "" : "  <-- WRONG");
+			correct &= counts[i] == EXPECTED_COUNTS[i];
+		}
+		System.out.printf("Ranked %,d hands in %.1f ms (%s)%n", TOTAL_HANDS, time / 1e6, BatchEvaluator.isVectorized() ? "Vector API" : "scalar");
+		if(!correct) System.exit(1);
+	}
+	
+	/**
+	 * COUNT CATEGORIES
+	 * 
+	 * Ranks every five card hand in parallel.
+	 * 
+	 * @return number of hands in each category, indexed the same as OUTCOMES
+	 */
+	public static long[] countCategories() {
+		return IntStream.range(0, Card.DECK_SIZE - Table.CARDS_PER_PLAYER + 1)
+				.parallel()
+				.mapToObj(HandEnumerator::countCategories)
+				.reduce(new long[Table.OUTCOMES.length], HandEnumerator::add);
+	}
+	
+	/**
+	 * COUNT CATEGORIES (OVERLOADED)
+	 * 
+	 * Ranks every hand whose lowest card (by deck index) is the one passed in.
+	 * 
+	 * @param first
+	 * @return number of hands in each category
+	 */
+	private static long[] countCategories(int first) {
+		long[] counts = new long[Table.OUTCOMES.length];
+		int[][] cards = new int[Table.CARDS_PER_PLAYER][BATCH_SIZE];
+		int[] scores = new int[BATCH_SIZE];
+		int hands = 0;
+		for(int i = first + 1; i < Card.DECK_SIZE; i++)
+			for(int j = i + 1; j < Card.DECK_SIZE; j++)
+				for(int k = j + 1; k < Card.DECK_SIZE; k++)
+					for(int l = k + 1; l < Card.DECK_SIZE; l++) {
+						cards[0][hands] = Card.ofIndex(first).getBits();
+						cards[1][hands] = Card.ofIndex(i).getBits();
+						cards[2][hands] = Card.ofIndex(j).getBits();
+						cards[3][hands] = Card.ofIndex(k).getBits();
+						cards[4][hands] = Card.ofIndex(l).getBits();
+						if(++hands == BATCH_SIZE) {
+							count(cards, scores, hands, counts);
+							hands = 0;
+						}
+					}
+		count(cards, scores, hands, counts);
+		return counts;
+	}
+	
+	/**
+	 * COUNT
+	 * 
+	 * Ranks a batch of hands and adds them to the counts.
+	 * 
+	 * @param cards
+	 * @param scores
+	 * @param hands
+	 * @param counts
+	 */
+	private static void count(int[][] cards, int[] scores, int hands, long[] counts) {
+		BatchEvaluator.evaluate(cards, scores, hands);
+		for(int i = 0; i < hands; i++)
+			counts[HandEvaluator.category(scores[i])]++;
+	}
+	
+	/**
+	 * ADD
+	 * 
+	 * Shared by every class that adds up counts worked out in parallel (HandStore, HandQuery, HoldemEvaluator).
+	 * 
+	 * @param a
+	 * @param b
+	 * @return a new array holding the sum of both arrays
+	 */
+	static long[] add(long[] a, long[] b) {
+		long[] sum = new long[a.length];
+		for(int i = 0; i < a.length; i++)
+			sum[i] = a[i] + b[i];
+		return sum;
+	}
+
+}
@@ -0,0 +1,378 @@
+/**
+ * HandEvaluator
+ * 
+ * A class used to rank a five card hand using lookup tables instead of checking for each outcome in turn.
+ * The tables are built once when the class is loaded.
+ * 
+ * A hand is ranked in three steps:
+ * 1. If all five cards share a suit the OR of their value bits is looked up in FLUSHES
+ * 2. If the five values are all different the OR of their value bits is looked up in UNIQUE_FIVE
+ * 3. Otherwise the product of a prime per value (unique for every mix of values) is looked up in a hash table
+ * Hands held as a bitboard (see Card.getBitboard()) are ranked the same way, except that paired hands are
+ * worked out from the number of cards of each value instead of the product table.
+ * 
+ * The score returned is a complete rank key, the same one Player.checkHand() returns:
+ * the category in the bits from CATEGORY_SHIFT up, then the five values that break ties (RANK_BITS each, most important first),
+ * e.g. two pair holds the higher pair, the lower pair and the kicker, a straight holds only its highest card.
+ * Any two hands can be ordered by comparing their scores as ints (equal scores are a real tie), and as the scores
+ * fit in 24 bits large batches can be sorted with a radix sort (see BatchEvaluator.sort()).
+ * Categories follow the order of the OUTCOMES array in Table (0 = High Card ... 9 = Royal Flush).
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.util.Arrays;
+
+
+public final class HandEvaluator {
+	
+	/** Class constants */
+	final public static int HIGH_CARD = 0, PAIR = 1, TWO_PAIR = 2, TRIPLE = 3, STRAIGHT = 4, FLUSH = 5,
+			FULL_HOUSE = 6, FOUR_OF_A_KIND = 7, STRAIGHT_FLUSH = 8, ROYAL_FLUSH = 9;
+	final public static int CATEGORY_SHIFT = 20, RANK_BITS = 4, RANK_MASK = 0xF;
+	final public static int SCORE_BITS = 24; // a score is at most ROYAL_FLUSH << CATEGORY_SHIFT | the ace
+	final public static int STRENGTH_MULTIPLIER = 100; // see strength()
+	final private static int[] PRIMES = new int[] {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37, 41};
+	final private static int VALUE_BITS = 1 << 13;
+	final private static int WHEEL = 0x100F; // A, 2, 3, 4, 5
+	final private static int HASH_BITS = 14;
+	final private static int SUIT_BITS = Card.SUIT_MASK << Card.SUIT_SHIFT;
+	final public static long SUIT_LANES = 0x1111111111111L; // the spades of a bitboard, shift by the suit for the others
+	
+	/** Lookup tables */
+	final private static int[] FLUSHES = new int[VALUE_BITS];
+	final private static int[] UNIQUE_FIVE = new int[VALUE_BITS];
+	final private static int[] PRODUCT_KEYS = new int[1 << HASH_BITS];
+	final private static int[] PRODUCT_SCORES = new int[1 << HASH_BITS];
+	
+	static {
+		buildValueBitTables();
+		buildProductTable();
+	}
+	
+	/**
+	 * CONSTRUCTOR
+	 * 
+	 * Not used, all methods are static.
+	 */
+	private HandEvaluator() {
+	}
+	
+	/**
+	 * EVALUATE (OVERLOADED)
+	 * 
+	 * Ranks a hand of five Card objects, the order of the cards does not matter.
+	 * 
+	 * @param hand
+	 * @return integer value representing the strength of the hand
+	 */
+	public static int evaluate(Card[] hand) {
+		return evaluate(hand[0].getBits(), hand[1].getBits(), hand[2].getBits(), hand[3].getBits(), hand[4].getBits());
+	}
+	
+	/**
+	 * EVALUATE (OVERLOADED)
+	 * 
+	 * Ranks a hand of five cards given as packed card bits (see Card.getBits()).
+	 * 
+	 * @param c1
+	 * @param c2
+	 * @param c3
+	 * @param c4
+	 * @param c5
+	 * @return integer value representing the strength of the hand
+	 */
+	public static int evaluate(int c1, int c2, int c3, int c4, int c5) {
+		int valueBits = (c1 | c2 | c3 | c4 | c5) >>> Card.VALUE_BIT_SHIFT;
+		if((((c1 ^ c2) | (c1 ^ c3) | (c1 ^ c4) | (c1 ^ c5)) & SUIT_BITS) == 0) return FLUSHES[valueBits];
+		if(Integer.bitCount(valueBits) == 5) return UNIQUE_FIVE[valueBits];
+		return lookupProduct(PRIMES[c1 & Card.VALUE_MASK] * PRIMES[c2 & Card.VALUE_MASK] * PRIMES[c3 & Card.VALUE_MASK]
+				* PRIMES[c4 & Card.VALUE_MASK] * PRIMES[c5 & Card.VALUE_MASK]);
+	}
+	
+	/**
+	 * EVALUATE (OVERLOADED)
+	 * 
+	 * Ranks a hand of five cards given as a bitboard (see Card.getBitboard()).
+	 * 
+	 * @param cards
+	 * @return integer value representing the strength of the hand
+	 */
+	public static int evaluate(long cards) {
+		return evaluate(cards, valueBits(cards));
+	}
+	
+	/**
+	 * EVALUATE (OVERLOADED)
+	 * 
+	 * Ranks a hand of five cards given as a bitboard and the OR of their value bits (see Player, which keeps both up to date).
+	 * A flush is a test against the cards of one suit, straights and high cards are looked up by the value bits
+	 * and paired hands are ranked from the number of cards of each value (counted a nibble at a time).
+	 * 
+	 * @param cards
+	 * @param valueBits
+	 * @return integer value representing the strength of the hand
+	 */
+	public static int evaluate(long cards, int valueBits) {
+		if((cards & ~(SUIT_LANES << (Long.numberOfTrailingZeros(cards) & Card.SUIT_MASK))) == 0) return FLUSHES[valueBits];
+		if(Integer.bitCount(valueBits) == 5) return UNIQUE_FIVE[valueBits];
+		long counts = valueCounts(cards);
+		long quads = counts & (SUIT_LANES << 2); // 100
+		long triples = counts & (counts >>> 1) & SUIT_LANES; // 011
+		long pairs = (counts >>> 1) & ~counts & SUIT_LANES; // 010
+		long singles = counts & ~(counts >>> 1) & SUIT_LANES; // 001
+		if(quads != 0) return score(FOUR_OF_A_KIND, ranks(singles, ranks(quads, 0)), 2);
+		if(triples != 0 && pairs != 0) return score(FULL_HOUSE, ranks(pairs, ranks(triples, 0)), 2);
+		if(triples != 0) return score(TRIPLE, ranks(singles, ranks(triples, 0)), 3);
+		if(Long.bitCount(pairs) == 2) return score(TWO_PAIR, ranks(singles, ranks(pairs, 0)), 3);
+		return score(PAIR, ranks(singles, ranks(pairs, 0)), 4);
+	}
+	
+	/**
+	 * RANKS
+	 * 
+	 * @param values a mask with a bit in the nibble of every value to add
+	 * @param ranks the values already added
+	 * @return the ranks with the values added after them, highest first
+	 */
+	private static int ranks(long values, int ranks) {
+		while(values != 0) {
+			int value = highestValue(values);
+			ranks = ranks << RANK_BITS | value;
+			values &= ~(0xFL << (value << 2));
+		}
+		return ranks;
+	}
+	
+	/**
+	 * SCORE
+	 * 
+	 * @param category
+	 * @param ranks values that break ties, most important first (RANK_BITS each)
+	 * @param count number of values in ranks
+	 * @return the score, with the first rank straight below the category
+	 */
+	private static int score(int category, int ranks, int count) {
+		return category << CATEGORY_SHIFT | ranks << (RANK_BITS * (Table.CARDS_PER_PLAYER - count));
+	}
+	
+	/**
+	 * VALUE BITS
+	 * 
+	 * @param cards a bitboard
+	 * @return the OR of the value bits of the cards
+	 */
+	public static int valueBits(long cards) {
+		int valueBits = 0;
+		for(; cards != 0; cards &= cards - 1)
+			valueBits |= 1 << (Long.numberOfTrailingZeros(cards) >>> 2);
+		return valueBits;
+	}
+	
+	/**
+	 * VALUE COUNTS
+	 * 
+	 * Adds up the four suit bits of every value in place (a popcount of each nibble).
+	 * 
+	 * @param cards a bitboard
+	 * @return the number of cards of each value, one nibble per value
+	 */
+	public static long valueCounts(long cards) {
+		long counts = cards - ((cards >>> 1) & 0x5555555555555L);
+		return (counts & 0x3333333333333L) + ((counts >>> 2) & 0x3333333333333L);
+	}
+	
+	/**
+	 * HIGHEST VALUE
+	 * 
+	 * @param bits a bitboard (or a mask with one bit per value nibble)
+	 * @return the highest value with a bit set
+	 */
+	private static int highestValue(long bits) {
+		return (63 - Long.numberOfLeadingZeros(bits)) >>> 2;
+	}
+	
+	/**
+	 * CATEGORY
+	 * 
+	 * @param score
+	 * @return index into OUTCOMES for a score returned by evaluate()
+	 */
+	public static int category(int score) {
+		return score >>> CATEGORY_SHIFT;
+	}
+	
+	/**
+	 * HIGHEST CARD
+	 * 
+	 * @param score
+	 * @return the most important value of a score (the highest card, or the value of the quad, triple or highest pair)
+	 */
+	public static int highestCard(int score) {
+		return (score >>> (CATEGORY_SHIFT - RANK_BITS)) & RANK_MASK;
+	}
+	
+	/**
+	 * STRENGTH
+	 * 
+	 * The score without the kickers, as category * 100 + highest card (e.g. 109 for any pair of jacks).
+	 * Used where hands are averaged rather than compared (see DrawOptimizer) and to write rules as short numbers.
+	 * 
+	 * @param score
+	 * @return the strength of the hand
+	 */
+	public static int strength(int score) {
+		return category(score) * STRENGTH_MULTIPLIER + highestCard(score);
+	}
+	
+	/**
+	 * LOWEST SCORE
+	 * 
+	 * @param category
+	 * @param highestCard
+	 * @return the lowest score of a hand with this category and highest card, whatever the kickers
+	 *         (e.g. lowestScore(PAIR, 9) is the least needed to beat or match any pair of jacks)
+	 */
+	public static int lowestScore(int category, int highestCard) {
+		return category << CATEGORY_SHIFT | highestCard << (CATEGORY_SHIFT - RANK_BITS);
+	}
+	
+	/**
+	 * OF STRENGTH
+	 * 
+	 * @param strength category * 100 + highest card
+	 * @return the lowest score with that strength
+	 */
+	public static int ofStrength(int strength) {
+		return lowestScore(strength / STRENGTH_MULTIPLIER, strength % STRENGTH_MULTIPLIER);
+	}
+	
+	/**
+	 * LOOKUP PRODUCT
+	 * 
+	 * Finds the score saved for a product of primes (hands with at least one pair).
+	 * 
+	 * @param product
+	 * @return integer value representing the strength of the hand
+	 */
+	private static int lookupProduct(int product) {
+		int slot = hash(product);
+		while(PRODUCT_KEYS[slot] != product)
+			slot = (slot + 1) & (PRODUCT_KEYS.length - 1);
+		return PRODUCT_SCORES[slot];
+	}
+	
+	/**
+	 * HASH
+	 * 
+	 * @param product
+	 * @return slot in the product table to start searching from
+	 */
+	private static int hash(int product) {
+		return (product * 0x9E3779B1) >>> (32 - HASH_BITS);
+	}
+	
+	/**
+	 * STRAIGHT HIGH CARD
+	 * 
+	 * @param valueBits
+	 * @return value of the highest card of a straight, or -1 if the five value bits are not a straight
+	 */
+	private static int straightHighCard(int valueBits) {
+		if(valueBits == WHEEL) return 3; // the five is the highest card of A, 2, 3, 4, 5
+		int lowest = Integer.numberOfTrailingZeros(valueBits);
+		if(valueBits == (0x1F << lowest)) return lowest + 4;
+		return -1;
+	}
+	
+	/**
+	 * BUILD VALUE BIT TABLES
+	 * 
+	 * Fills FLUSHES and UNIQUE_FIVE for every combination of five different values.
+	 */
+	private static void buildValueBitTables() {
+		for(int valueBits = 0; valueBits < VALUE_BITS; valueBits++) {
+			if(Integer.bitCount(valueBits) != 5) continue;
+			int ranks = 0;
+			for(int value = Card.VALUES.length - 1; value >= 0; value--)
+				if((valueBits & (1 << value)) != 0) ranks = ranks << RANK_BITS | value;
+			int straight = straightHighCard(valueBits);
+			if(straight >= 0) {
+				int category = straight == Card.VALUES.length - 1 ? ROYAL_FLUSH : STRAIGHT_FLUSH;
+				FLUSHES[valueBits] = score(category, straight, 1);
+				UNIQUE_FIVE[valueBits] = score(STRAIGHT, straight, 1);
+			}
+			else {
+				FLUSHES[valueBits] = score(FLUSH, ranks, 5);
+				UNIQUE_FIVE[valueBits] = score(HIGH_CARD, ranks, 5);
+			}
+		}
+	}
+	
+	/**
+	 * BUILD PRODUCT TABLE
+	 * 
+	 * Goes through every mix of five values that contains at least one pair and saves its score
+	 * under the product of the primes for its values.
+	 */
+	private static void buildProductTable() {
+		int[] counts = new int[Card.VALUES.length];
+		for(int a = 0; a < counts.length; a++)
+			for(int b = a; b < counts.length; b++)
+				for(int c = b; c < counts.length; c++)
+					for(int d = c; d < counts.length; d++)
+						for(int e = d; e < counts.length; e++) {
+							if(a != b && b != c && c != d && d != e) continue; // no pair, handled by UNIQUE_FIVE
+							if(a == e) continue; // five of a kind is impossible
+							Arrays.fill(counts, 0);
+							counts[a]++; counts[b]++; counts[c]++; counts[d]++; counts[e]++;
+							insertProduct(PRIMES[a] * PRIMES[b] * PRIMES[c] * PRIMES[d] * PRIMES[e], scoreFromCounts(counts));
+						}
+	}
+	
+	/**
+	 * SCORE FROM COUNTS
+	 * 
+	 * Works out the score of a paired hand from how many cards of each value it holds.
+	 * The values are ranked by how many cards share them and then by value (e.g. the triple, then the pair of a full house).
+	 * 
+	 * @param counts
+	 * @return integer value representing the strength of the hand
+	 */
+	private static int scoreFromCounts(int[] counts) {
+		int ranks = 0, values = 0, pairs = 0, triples = 0, quads = 0;
+		for(int count = 4; count >= 1; count--)
+			for(int value = counts.length - 1; value >= 0; value--)
+				if(counts[value] == count) {
+					ranks = ranks << RANK_BITS | value;
+					values++;
+					if(count == 4) quads++;
+					else if(count == 3) triples++;
+					else if(count == 2) pairs++;
+				}
+		if(quads > 0) return score(FOUR_OF_A_KIND, ranks, values);
+		if(triples > 0 && pairs == 1) return score(FULL_HOUSE, ranks, values);
+		if(triples > 0) return score(TRIPLE, ranks, values);
+		if(pairs == 2) return score(TWO_PAIR, ranks, values);
+		return score(PAIR, ranks, values);
+	}
+	
+	/**
+	 * INSERT PRODUCT
+	 * 
+	 * Saves a score in the first free slot at or after the hashed slot of the product.
+	 * 
+	 * @param product
+	 * @param score
+	 */
+	private static void insertProduct(int product, int score) {
+		int slot = hash(product);
+		while(PRODUCT_KEYS[slot] != 0)
+			slot = (slot + 1) & (PRODUCT_KEYS.length - 1);
+		PRODUCT_KEYS[slot] = product;
+		PRODUCT_SCORES[slot] = score;
+	}
+
+}
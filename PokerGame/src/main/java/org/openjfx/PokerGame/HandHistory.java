@@ -0,0 +1,158 @@
+/**
+ * HandHistory
+ * 
+ * A class used to describe the hand history format, an append-only file of fixed width binary records.
+ * The file starts with a HEADER_SIZE (16) byte header: MAGIC, VERSION and 8 unused bytes, so the records after it
+ * stay aligned and a file from an older version is rejected instead of replayed wrongly (see checkHeader()).
+ * Every record is RECORD_SIZE (16) bytes, big-endian:
+ * type (1 byte), seat (1 byte), a (1 byte), b (1 byte), value (4 bytes), extra (8 bytes)
+ * 
+ * What the fields hold depends on the type (seats are Table seats, -1 for NOBODY):
+ * 1. ROUND - seat is the opener, a and b are your and the computer's coins, value is the round,
+ *    extra is MIN_OPEN in the high 4 bytes and MIN_COMPUTER_PROCEED in the low 4 bytes
+ * 2. DEAL - one for each seat, a is the pot, value is the score, extra is the cards
+ * 3. OPEN - seat is the opener, a is the pot after both players added a coin
+ * 4. REFRESH - one for each seat, a is the mask of cards refreshed, value is the new score, extra is the new cards
+ * 5. BET - seat is YOU, a is the amount (0 means you checked)
+ * 6. CALL - seat is COMPUTER, a is the amount, b is the pot after
+ * 7. FOLD - seat is COMPUTER, a is the pot you won, b is the stage after, value is the coins after
+ * 8. SHOWDOWN - seat is the result, a is the pot, b is the stage after, value is the coins after
+ * Cards are stored as their deck index (0-51), one byte each, in the first 5 bytes of extra.
+ * Coins are stored in value as your coins in the high 2 bytes and the computer's coins in the low 2 bytes.
+ * 
+ * Every round starts with a ROUND record and the records of a round are always written together,
+ * so a round can be read back on its own (see HandHistoryReplayer).
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+
+public final class HandHistory {
+	
+	/** Class constants */
+	final public static int RECORD_SIZE = 16;
+	final public static int MAGIC = 0x504B4848; // "PKHH"
+	final public static int VERSION = 2; // scores with kickers (see HandEvaluator), files before had no header
+	final public static int HEADER_SIZE = RECORD_SIZE;
+	final public static int MAX_RECORDS_PER_ROUND = 9; // ROUND, 2 DEAL, OPEN, 2 REFRESH, BET, CALL, SHOWDOWN
+	final public static String[] TYPES = new String[] {"ROUND", "DEAL", "OPEN", "REFRESH", "BET", "CALL", "FOLD", "SHOWDOWN"};
+	
+	/** Record types */
+	final public static int ROUND = 0, DEAL = 1, OPEN = 2, REFRESH = 3, BET = 4, CALL = 5, FOLD = 6, SHOWDOWN = 7;
+	
+	/** Field offsets */
+	final public static int TYPE = 0, SEAT = 1, A = 2, B = 3, VALUE = 4, EXTRA = 8;
+	
+	/**
+	 * CONSTRUCTOR
+	 * 
+	 * Not used, all methods are static.
+	 */
+	private HandHistory() {
+	}
+	
+	/**
+	 * HEADER
+	 * 
+	 * @return a buffer holding the header of a new file, ready to be written
+	 */
+	public static ByteBuffer header() {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC).putInt(VERSION).putLong(0).flip();
+		return header;
+	}
+	
+	/**
+	 * CHECK HEADER
+	 * 
+	 * @param channel an open hand history file
+	 * @param path for the error message
+	 * @throws IOException if the file does not start with the header of this VERSION
+	 */
+	public static void checkHeader(FileChannel channel, Path path) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		while(header.hasRemaining() && channel.read(header, header.position()) >= 0);
+		if(header.hasRemaining() || header.getInt(0) != MAGIC) throw new IOException(path + " is not a hand history file (or is from before files had a header)");
+		if(header.getInt(4) != VERSION) throw new IOException(path + " is hand history version " + header.getInt(4) + ", only version " + VERSION + " can be read");
+	}
+	
+	/**
+	 * PUT
+	 * 
+	 * Adds one record to the end of the buffer.
+	 * 
+	 * @param buffer
+	 * @param type
+	 * @param seat
+	 * @param a
+	 * @param b
+	 * @param value
+	 * @param extra
+	 */
+	public static void put(ByteBuffer buffer, int type, int seat, int a, int b, int value, long extra) {
+		buffer.put((byte) type).put((byte) seat).put((byte) a).put((byte) b).putInt(value).putLong(extra);
+	}
+	
+	/**
+	 * CARDS
+	 * 
+	 * @param player
+	 * @return the players cards packed into the extra field
+	 */
+	public static long cards(Player player) {
+		long cards = 0, remaining = player.getCards();
+		for(int i = 0; remaining != 0; i++, remaining &= remaining - 1)
+			cards |= (long) Card.ofBitboard(remaining).getIndex() << (56 - 8 * i);
+		return cards;
+	}
+	
+	/**
+	 * CARD
+	 * 
+	 * @param extra
+	 * @param i
+	 * @return the deck index of card i packed in the extra field
+	 */
+	public static int card(long extra, int i) {
+		return (int) (extra >>> (56 - 8 * i)) & 0xFF;
+	}
+	
+	/**
+	 * COINS
+	 * 
+	 * @param yourCoins
+	 * @param computersCoins
+	 * @return both balances packed into the value field
+	 */
+	public static int coins(int yourCoins, int computersCoins) {
+		return yourCoins << 16 | (computersCoins & 0xFFFF);
+	}
+	
+	/**
+	 * YOUR COINS
+	 * 
+	 * @param value
+	 * @return your balance from a packed value field
+	 */
+	public static int yourCoins(int value) {
+		return value >> 16;
+	}
+	
+	/**
+	 * COMPUTERS COINS
+	 * 
+	 * @param value
+	 * @return the computer's balance from a packed value field
+	 */
+	public static int computersCoins(int value) {
+		return (short) value;
+	}
+
+}
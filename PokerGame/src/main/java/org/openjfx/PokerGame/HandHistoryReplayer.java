@@ -0,0 +1,387 @@
+/**
+ * HandHistoryReplayer
+ * 
+ * A class used to read HandHistory files back, either to print one round or to check every round.
+ * 
+ * Checking replays each round through the same rules as Table and compares every recorded number with
+ * the number worked out again:
+ * 1. Every score is ranked again with HandEvaluator and no card appears twice in a round
+ * 2. The opener follows MIN_OPEN and opening takes 1 coin from each player
+ * 3. A refresh keeps the cards that were not selected and only adds cards not seen yet in the round
+ * 4. The computer calls or folds following MIN_COMPUTER_PROCEED
+ * 5. The result, the pot and both balances after the showdown or fold are right
+ * The file is read through memory-mapped windows, so millions of rounds can be checked in a few seconds.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+
+public class HandHistoryReplayer {
+	
+	/** Class constants */
+	final public static int WINDOW_SIZE = 1 << 30; // bytes mapped at a time, a whole number of records
+	final public static int MAX_ERRORS_KEPT = 20;
+	
+	/** Class variables */
+	private long rounds, records;
+	private List<String> errors = new ArrayList<>();
+	private long errorCount;
+	// the round being replayed
+	private long roundRecord; // index of the ROUND record
+	private int round, opener, yourCoins, computersCoins, pot, minOpen, minComputerProceed, betAmount;
+	private int expected = -1, expectedSeat; // the next record type and seat, -1 if only a ROUND can come next
+	private int[][] hands = new int[2][Table.CARDS_PER_PLAYER];
+	private int[] scores = new int[2];
+	private long seen; // bit i is set once the card with index i has been dealt in this round
+	
+	/**
+	 * MAIN
+	 * 
+	 * Checks every round in the file, or prints one round if its number in the file (from 1) is given.
+	 * Exits with status 1 if any round is wrong.
+	 * 
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length < 1) {
+			System.out.println("Usage: HandHistoryReplayer file [round]");
+			return;
+		}
+		Path path = Paths.get(args[0]);
+		if(args.length > 1) {
+			System.out.print(describeRound(path, Long.parseLong(args[1])));
+			return;
+		}
+		long start = System.nanoTime();
+		HandHistoryReplayer replayer = new HandHistoryReplayer();
+		replayer.replay(path);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("Replayed %,d rounds (%,d records) in %.2f s (%,.0f rounds per second)%n", replayer.getRounds(),
+				replayer.getRecords(), seconds, replayer.getRounds() / seconds);
+		for(String error : replayer.getErrors())
+			System.out.println(error);
+		System.out.printf("%,d errors%n", replayer.getErrorCount());
+		if(replayer.getErrorCount() > 0) System.exit(1);
+	}
+	
+	/**
+	 * REPLAY
+	 * 
+	 * Checks every record in the file.
+	 * 
+	 * @param path
+	 * @throws IOException
+	 */
+	public void replay(Path path) throws IOException {
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			HandHistory.checkHeader(channel, path);
+			long size = channel.size() - channel.size() % HandHistory.RECORD_SIZE;
+			for(long position = HandHistory.HEADER_SIZE; position < size; position += WINDOW_SIZE) {
+				MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position));
+				for(int offset = 0; offset < window.limit(); offset += HandHistory.RECORD_SIZE)
+					replay(window.get(offset), window.get(offset + HandHistory.SEAT), window.get(offset + HandHistory.A),
+							window.get(offset + HandHistory.B), window.getInt(offset + HandHistory.VALUE),
+							window.getLong(offset + HandHistory.EXTRA));
+			}
+		}
+	}
+	
+	/**
+	 * REPLAY (OVERLOADED)
+	 * 
+	 * Checks one record against the round so far.
+	 * 
+	 * @param type
+	 * @param seat
+	 * @param a
+	 * @param b
+	 * @param value
+	 * @param extra
+	 */
+	private void replay(int type, int seat, int a, int b, int value, long extra) {
+		long record = records++;
+		if(type < 0 || type >= HandHistory.TYPES.length) {
+			error(record, "unknown record type " + type);
+			expected = -1; // ignore the rest of the round
+			return;
+		}
+		if(type != HandHistory.ROUND && type != expected && !(expected == HandHistory.CALL && type == HandHistory.FOLD)) {
+			error(record, HandHistory.TYPES[type] + " record where " + (expected < 0 ? "ROUND" : HandHistory.TYPES[expected]) + " was expected");
+			expected = -1;
+			return;
+		}
+		if((type == HandHistory.DEAL || type == HandHistory.REFRESH) && seat != expectedSeat) {
+			error(record, HandHistory.TYPES[type] + " for seat " + seat + " out of order");
+			expected = -1;
+			return;
+		}
+		switch(type) {
+			case HandHistory.ROUND:
+				rounds++;
+				roundRecord = record;
+				round = value;
+				opener = seat;
+				yourCoins = a;
+				computersCoins = b;
+				minOpen = (int) (extra >> 32);
+				minComputerProceed = (int) extra;
+				seen = 0;
+				expected = HandHistory.DEAL;
+				expectedSeat = Table.COMPUTER;
+				break;
+			case HandHistory.DEAL:
+				pot = a;
+				if(!deal(record, seat, extra, value)) return;
+				if(seat == Table.COMPUTER) {
+					expectedSeat = Table.YOU;
+					break;
+				}
+				int expectedOpener = scores[Table.COMPUTER] >= minOpen ? Table.COMPUTER : scores[Table.YOU] >= minOpen ? Table.YOU : Table.NOBODY;
+				if(opener != expectedOpener) error(record, "opener is " + opener + " but should be " + expectedOpener);
+				expected = opener == Table.NOBODY ? -1 : HandHistory.OPEN;
+				break;
+			case HandHistory.OPEN:
+				yourCoins--;
+				computersCoins--;
+				pot += 2;
+				if(a != pot) error(record, "pot after opening is " + a + " but should be " + pot);
+				expected = HandHistory.REFRESH;
+				expectedSeat = Table.COMPUTER;
+				break;
+			case HandHistory.REFRESH:
+				if(Integer.bitCount(a & 0xFF) > Table.ALLOWED_REFRESHABLE_CARDS || (a & 0xFF) >>> Table.CARDS_PER_PLAYER != 0)
+					error(record, "refreshed an invalid set of cards " + Integer.toBinaryString(a & 0xFF));
+				refresh(record, seat, a & 0xFF, extra);
+				if(!deal(record, seat, extra, value)) return;
+				expected = seat == Table.COMPUTER ? HandHistory.REFRESH : HandHistory.BET;
+				expectedSeat = Table.YOU;
+				break;
+			case HandHistory.BET:
+				betAmount = a;
+				int maxBetAmount = Math.min(Table.MAX_BET_AMOUNT, Math.min(yourCoins, computersCoins));
+				if(betAmount < 0 || betAmount > maxBetAmount) error(record, "bet of " + betAmount + " is not allowed");
+				yourCoins -= betAmount; // your bet goes into the pot before the computer calls or folds
+				pot += betAmount;
+				expected = betAmount == 0 ? HandHistory.SHOWDOWN : HandHistory.CALL;
+				break;
+			case HandHistory.CALL:
+				if(scores[Table.COMPUTER] < minComputerProceed) error(record, "computer called with " + scores[Table.COMPUTER]);
+				computersCoins -= betAmount;
+				pot += betAmount;
+				if(a != betAmount || b != pot) error(record, "call of " + a + " with pot " + b + " should be " + betAmount + " with pot " + pot);
+				expected = HandHistory.SHOWDOWN;
+				break;
+			case HandHistory.FOLD:
+				if(scores[Table.COMPUTER] >= minComputerProceed) error(record, "computer folded with " + scores[Table.COMPUTER]);
+				yourCoins += pot;
+				settle(record, a, b, value);
+				break;
+			case HandHistory.SHOWDOWN:
+				int result = scores[Table.COMPUTER] > scores[Table.YOU] ? Table.COMPUTER_WINS
+						: scores[Table.COMPUTER] < scores[Table.YOU] ? Table.YOU_WIN : Table.DRAW;
+				if(seat != result) error(record, "result is " + seat + " but should be " + result);
+				if(result == Table.COMPUTER_WINS) computersCoins += pot;
+				else if(result == Table.YOU_WIN) yourCoins += pot;
+				else {
+					computersCoins += pot / 2;
+					yourCoins += pot / 2;
+				}
+				settle(record, a, b, value);
+				break;
+		}
+	}
+	
+	/**
+	 * DEAL
+	 * 
+	 * Checks a hand that was dealt (or refreshed) and its score.
+	 * 
+	 * @param record
+	 * @param seat
+	 * @param extra
+	 * @param score
+	 * @return false if the hand is not a valid hand
+	 */
+	private boolean deal(long record, int seat, long extra, int score) {
+		int[] hand = hands[seat];
+		Card[] cards = new Card[Table.CARDS_PER_PLAYER];
+		for(int i = 0; i < hand.length; i++) {
+			hand[i] = HandHistory.card(extra, i);
+			if(hand[i] >= Card.DECK_SIZE) {
+				error(record, "card index " + hand[i] + " out of range");
+				expected = -1;
+				return false;
+			}
+			cards[i] = Card.ofIndex(hand[i]);
+			seen |= 1L << hand[i];
+		}
+		scores[seat] = HandEvaluator.evaluate(cards);
+		if(scores[seat] != score) error(record, "score is " + score + " but the cards score " + scores[seat]);
+		return true;
+	}
+	
+	/**
+	 * REFRESH
+	 * 
+	 * Checks the cards kept are still in the hand and every new card has not been seen before in the round.
+	 * 
+	 * @param record
+	 * @param seat
+	 * @param mask
+	 * @param extra
+	 */
+	private void refresh(long record, int seat, int mask, long extra) {
+		long before = 0, after = 0;
+		for(int i = 0; i < Table.CARDS_PER_PLAYER; i++) {
+			if((mask & (1 << i)) == 0) before |= 1L << hands[seat][i];
+			int card = HandHistory.card(extra, i);
+			if(card < Card.DECK_SIZE) after |= 1L << card;
+		}
+		if((before & ~after) != 0) error(record, "a card that was kept is missing");
+		long added = after & ~before;
+		if(Long.bitCount(added) != Integer.bitCount(mask) || (added & seen) != 0) error(record, "refreshed cards were not new cards from the deck");
+	}
+	
+	/**
+	 * SETTLE
+	 * 
+	 * Checks the pot, stage and balances recorded at the end of a round.
+	 * 
+	 * @param record
+	 * @param recordedPot
+	 * @param recordedStage
+	 * @param coins
+	 */
+	private void settle(long record, int recordedPot, int recordedStage, int coins) {
+		if(recordedPot != pot) error(record, "pot is " + recordedPot + " but should be " + pot);
+		if(HandHistory.yourCoins(coins) != yourCoins || HandHistory.computersCoins(coins) != computersCoins)
+			error(record, "balances are " + HandHistory.yourCoins(coins) + "/" + HandHistory.computersCoins(coins) + " but should be "
+					+ yourCoins + "/" + computersCoins);
+		int stage = yourCoins <= 0 || computersCoins <= 0 ? Table.GAME_OVER : Table.ROUND_OVER;
+		if(recordedStage != stage) error(record, "stage is " + recordedStage + " but should be " + stage);
+		expected = -1;
+	}
+	
+	/**
+	 * ERROR
+	 * 
+	 * @param record
+	 * @param message
+	 */
+	private void error(long record, String message) {
+		if(errorCount++ < MAX_ERRORS_KEPT) errors.add(String.format("Record %,d (round %d starting at record %,d): %s", record, round, roundRecord, message));
+	}
+	
+	/**
+	 * DESCRIBE ROUND
+	 * 
+	 * @param path
+	 * @param number of the round in the file, counting from 1
+	 * @return the records of the round, one per line
+	 * @throws IOException
+	 */
+	public static String describeRound(Path path, long number) throws IOException {
+		StringBuilder description = new StringBuilder();
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			HandHistory.checkHeader(channel, path);
+			long size = channel.size() - channel.size() % HandHistory.RECORD_SIZE, found = 0;
+			for(long position = HandHistory.HEADER_SIZE; position < size; position += WINDOW_SIZE) {
+				MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position));
+				for(int offset = 0; offset < window.limit(); offset += HandHistory.RECORD_SIZE) {
+					int type = window.get(offset);
+					if(type == HandHistory.ROUND && ++found > number) return description.toString();
+					if(found == number) description.append(describe(type, window.get(offset + HandHistory.SEAT), window.get(offset + HandHistory.A),
+							window.get(offset + HandHistory.B), window.getInt(offset + HandHistory.VALUE), window.getLong(offset + HandHistory.EXTRA)))
+							.append(System.lineSeparator());
+				}
+			}
+		}
+		if(description.length() == 0) throw new IllegalArgumentException("There is no round " + number);
+		return description.toString();
+	}
+	
+	/**
+	 * DESCRIBE
+	 * 
+	 * @param type
+	 * @param seat
+	 * @param a
+	 * @param b
+	 * @param value
+	 * @param extra
+	 * @return one record as text
+	 */
+	private static String describe(int type, int seat, int a, int b, int value, long extra) {
+		String who = seat == Table.COMPUTER ? "computer" : seat == Table.YOU ? "you" : "nobody";
+		switch(type) {
+			case HandHistory.ROUND:
+				return String.format("Round %d: you %d coins, computer %d coins, %s can open (MIN_OPEN %d, MIN_COMPUTER_PROCEED %d)",
+						value, a, b, who, HandEvaluator.strength((int) (extra >> 32)), HandEvaluator.strength((int) extra));
+			case HandHistory.DEAL:
+				return String.format("Deal %-8s %s  %s", who, cards(extra), Table.OUTCOMES[HandEvaluator.category(value)]);
+			case HandHistory.OPEN:
+				return String.format("Opened by %s, pot %d", who, a);
+			case HandHistory.REFRESH:
+				return String.format("Refresh %-5s %s  %s (%d cards)", who, cards(extra), Table.OUTCOMES[HandEvaluator.category(value)], Integer.bitCount(a & 0xFF));
+			case HandHistory.BET:
+				return a == 0 ? "You check" : "You bet " + a;
+			case HandHistory.CALL:
+				return String.format("Computer calls %d, pot %d", a, b);
+			case HandHistory.FOLD:
+				return String.format("Computer folds, you win %d, you %d coins, computer %d coins", a, HandHistory.yourCoins(value), HandHistory.computersCoins(value));
+			case HandHistory.SHOWDOWN:
+				String result = seat == Table.COMPUTER_WINS ? "computer wins" : seat == Table.YOU_WIN ? "you win" : "draw";
+				return String.format("Showdown, %s %d, you %d coins, computer %d coins%s", result, a, HandHistory.yourCoins(value),
+						HandHistory.computersCoins(value), b == Table.GAME_OVER ? ", game over" : "");
+			default:
+				return "Unknown record " + type;
+		}
+	}
+	
+	/**
+	 * CARDS
+	 * 
+	 * @param extra
+	 * @return the cards packed in the extra field as text
+	 */
+	private static String cards(long extra) {
+		String cards = "";
+		for(int i = 0; i < Table.CARDS_PER_PLAYER; i++) {
+			int index = HandHistory.card(extra, i);
+			cards += " " + (index < Card.DECK_SIZE ? Card.ofIndex(index).toString() : "?") + " ";
+		}
+		return cards;
+	}
+	
+	/**
+	 * GETTERS
+	 */
+	public long getRounds() {
+		return rounds;
+	}
+	
+	public long getRecords() {
+		return records;
+	}
+	
+	public long getErrorCount() {
+		return errorCount;
+	}
+	
+	public List<String> getErrors() {
+		return errors;
+	}
+
+}
@@ -0,0 +1,120 @@
+/**
+ * HandHistoryWriter
+ * 
+ * A class used to append HandHistory records to a file.
+ * 
+ * Tables collect the records of each round in a small buffer of their own and pass whole rounds to write(),
+ * which only copies them into a large direct buffer. The large buffer is written to the FileChannel when it is full
+ * (and on flush() or close()), so the game loop only pays for a copy and the file gets a few large writes.
+ * One writer can be shared by Tables on different threads, rounds from different tables are never mixed up.
+ * A new file gets the HandHistory header, and an existing file is only appended to if it has the header of the same version.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+public class HandHistoryWriter implements AutoCloseable {
+	
+	/** Class constants */
+	final public static int BUFFER_SIZE = 1 << 20; // 65,536 records
+	
+	/** Class variables */
+	private FileChannel channel;
+	private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private long records;
+	
+	/**
+	 * CONSTRUCTOR
+	 * 
+	 * Opens the file for appending, creating it if needed.
+	 * 
+	 * @param path
+	 * @throws IOException also if the file has records of another version
+	 */
+	public HandHistoryWriter(Path path) throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			if(channel.size() == 0) writeFully(HandHistory.header());
+			else HandHistory.checkHeader(channel, path);
+			channel.position(channel.size()); // READ can't be combined with APPEND
+		}
+		catch(IOException | UncheckedIOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * WRITE
+	 * 
+	 * Copies the records between position and limit of the buffer passed in (which is left unchanged).
+	 * 
+	 * @param records
+	 */
+	public synchronized void write(ByteBuffer records) {
+		if(records.remaining() % HandHistory.RECORD_SIZE != 0) throw new IllegalArgumentException("Not a whole number of records");
+		if(records.remaining() > buffer.remaining()) flush();
+		if(records.remaining() > buffer.remaining()) writeFully(records.duplicate());
+		else buffer.put(records.duplicate());
+		this.records += records.remaining() / HandHistory.RECORD_SIZE;
+	}
+	
+	/**
+	 * FLUSH
+	 * 
+	 * Writes the buffered records to the file.
+	 */
+	public synchronized void flush() {
+		buffer.flip();
+		writeFully(buffer);
+		buffer.clear();
+	}
+	
+	/**
+	 * WRITE FULLY
+	 * 
+	 * @param records
+	 */
+	private void writeFully(ByteBuffer records) {
+		try {
+			while(records.hasRemaining())
+				channel.write(records);
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * GET RECORDS
+	 * 
+	 * @return number of records written (or buffered) so far
+	 */
+	public synchronized long getRecords() {
+		return records;
+	}
+	
+	/**
+	 * CLOSE
+	 * 
+	 * Flushes and closes the file.
+	 * 
+	 * @throws IOException
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if(!channel.isOpen()) return;
+		flush();
+		channel.close();
+	}
+
+}
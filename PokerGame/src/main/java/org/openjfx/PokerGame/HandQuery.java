@@ -0,0 +1,182 @@
+/**
+ * HandQuery
+ * 
+ * A class used to count rounds in a HandColumns file, e.g. how often the computer wins when it opens with a pair of queens.
+ * 
+ * A query is a list of where() ranges (a row has to be inside all of them) and a column to count the values of.
+ * The blocks are scanned in parallel and each block only unpacks the columns the query uses:
+ * 1. A block is skipped if any range cannot match its min and max
+ * 2. A range that matches the whole block (by its min and max) is not unpacked at all
+ * 3. Otherwise the rows still selected are narrowed column by column
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+
+public class HandQuery {
+	
+	/** Class variables */
+	private HandColumns columns;
+	private List<int[]> ranges = new ArrayList<>(); // column, min, max
+	private AtomicInteger blocksSkipped = new AtomicInteger();
+	
+	/**
+	 * MAIN
+	 * 
+	 * Runs a few example queries on a columns file.
+	 * 
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length < 1) {
+			System.out.println("Usage: HandQuery columns");
+			return;
+		}
+		HandColumns columns = new HandColumns(Paths.get(args[0]));
+		System.out.printf("%,d rounds in %,d blocks%n", columns.getRows(), columns.getBlocks());
+
+		// any pair of queens scores between the lowest and highest kickers
+		int lowestQueens = HandEvaluator.evaluate(new Card[] {Card.of(0, 0), Card.of(1, 1), Card.of(2, 2), Card.of(0, 10), Card.of(1, 10)});
+		int highestQueens = HandEvaluator.evaluate(new Card[] {Card.of(0, 9), Card.of(1, 11), Card.of(2, 12), Card.of(2, 10), Card.of(3, 10)});
+		long start = System.nanoTime();
+		HandQuery query = new HandQuery(columns).where(HandColumns.OPENER, Table.COMPUTER, Table.COMPUTER)
+				.where(HandColumns.COMPUTER_DEAL, lowestQueens, highestQueens).where(HandColumns.RESULT, 0, Table.COMPUTER_FOLDS);
+		long[] results = query.histogram(HandColumns.RESULT, IntUnaryOperator.identity(), GameServer.RESULTS.length - 1);
+		long played = 0;
+		for(long count : results)
+			played += count;
+		System.out.printf("%nComputer opens with a pair of queens (%,d rounds played out, %.1f ms, %d blocks skipped):%n", played,
+				(System.nanoTime() - start) / 1e6, query.getBlocksSkipped());
+		for(int result = 0; result < results.length; result++)
+			System.out.printf("  %-16s %6.2f%%%n", GameServer.RESULTS[result + 1], results[result] * 100.0 / Math.max(1, played));
+
+		start = System.nanoTime();
+		query = new HandQuery(columns).where(HandColumns.YOUR_REFRESHED, 3, 3);
+		long[] outcomes = query.histogram(HandColumns.YOUR_FINAL, HandEvaluator::category, Table.OUTCOMES.length);
+		long refreshed = 0;
+		for(long count : outcomes)
+			refreshed += count;
+		System.out.printf("%nYour hand after refreshing 3 cards (%,d rounds, %.1f ms, %d blocks skipped):%n", refreshed,
+				(System.nanoTime() - start) / 1e6, query.getBlocksSkipped());
+		for(int outcome = outcomes.length - 1; outcome >= 0; outcome--)
+			System.out.printf("  %-16s %6.2f%%%n", Table.OUTCOMES[outcome], outcomes[outcome] * 100.0 / Math.max(1, refreshed));
+	}
+	
+	/**
+	 * CONSTRUCTOR
+	 * 
+	 * @param columns
+	 */
+	public HandQuery(HandColumns columns) {
+		this.columns = columns;
+	}
+	
+	/**
+	 * WHERE
+	 * 
+	 * Only counts rows with a value from min to max (inclusive) in the column.
+	 * 
+	 * @param column
+	 * @param min
+	 * @param max
+	 * @return this query
+	 */
+	public HandQuery where(int column, int min, int max) {
+		ranges.add(new int[] {column, min, max});
+		return this;
+	}
+	
+	/**
+	 * COUNT
+	 * 
+	 * @return number of rows inside every range
+	 */
+	public long count() {
+		return histogram(-1, value -> 0, 1)[0];
+	}
+	
+	/**
+	 * HISTOGRAM
+	 * 
+	 * Counts the selected rows by a key worked out from one column (keys outside 0 to keys - 1 are not counted).
+	 * 
+	 * @param column
+	 * @param key
+	 * @param keys
+	 * @return count for each key
+	 */
+	public long[] histogram(int column, IntUnaryOperator key, int keys) {
+		blocksSkipped.set(0);
+		return IntStream.range(0, columns.getBlocks())
+				.parallel()
+				.mapToObj(block -> histogram(block, column, key, keys))
+				.reduce(new long[keys], HandEnumerator::add);
+	}
+	
+	/**
+	 * HISTOGRAM (OVERLOADED)
+	 * 
+	 * Counts one block.
+	 * 
+	 * @param block
+	 * @param column
+	 * @param key
+	 * @param keys
+	 * @return count for each key
+	 */
+	private long[] histogram(int block, int column, IntUnaryOperator key, int keys) {
+		long[] counts = new long[keys];
+		for(int[] range : ranges)
+			if(columns.getMax(block, range[0]) < range[1] || columns.getMin(block, range[0]) > range[2]) {
+				blocksSkipped.incrementAndGet();
+				return counts;
+			}
+		int rows = columns.getBlockRows(block);
+		int[] values = new int[rows];
+		int[] selected = new int[rows];
+		int count = rows;
+		for(int i = 0; i < rows; i++)
+			selected[i] = i;
+		for(int[] range : ranges) {
+			if(columns.getMin(block, range[0]) >= range[1] && columns.getMax(block, range[0]) <= range[2]) continue;
+			columns.read(block, range[0], values);
+			int kept = 0;
+			for(int i = 0; i < count; i++) {
+				int value = values[selected[i]];
+				if(value >= range[1] && value <= range[2]) selected[kept++] = selected[i];
+			}
+			count = kept;
+		}
+		if(column < 0) {
+			counts[0] = count;
+			return counts;
+		}
+		if(count > 0) columns.read(block, column, values);
+		for(int i = 0; i < count; i++) {
+			int k = key.applyAsInt(values[selected[i]]);
+			if(k >= 0 && k < keys) counts[k]++;
+		}
+		return counts;
+	}
+	
+	/**
+	 * GET BLOCKS SKIPPED
+	 * 
+	 * @return number of blocks the last query skipped by their min and max
+	 */
+	public int getBlocksSkipped() {
+		return blocksSkipped.get();
+	}
+
+}
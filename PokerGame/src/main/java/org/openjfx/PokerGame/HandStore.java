@@ -0,0 +1,394 @@
+/**
+ * HandStore
+ * 
+ * A class used to keep tens of millions of hands and their scores outside the Java heap, e.g. every final hand of a long simulation.
+ * 
+ * Every hand is a RECORD_SIZE (8) byte record: the deck index (0-51) of each of the 5 cards, one byte each
+ * and lowest value first, then the score in the last 3 bytes. So 50 million hands take 400 MB of memory the garbage
+ * collector never looks at, where the same hands as Card arrays would be gigabytes of objects.
+ * 
+ * The records are held in chunks of CHUNK_RECORDS (so a store can be bigger than one 2 GB buffer), either direct
+ * buffers or windows of a memory-mapped file (the file keeps the hands after the program ends, see open()).
+ * add() and reserve() can be called from many threads at once. Hands are read with a Cursor, which moves over a range of
+ * records without creating any objects, and split() gives cursors over equal parts of the store to read in parallel.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+public class HandStore implements AutoCloseable {
+	
+	/** Class constants */
+	final public static int RECORD_SIZE = 8;
+	final public static int RANK = 5; // offset of the score
+	final public static int MAX_RANK = (1 << 24) - 1;
+	final public static int CHUNK_RECORDS = 1 << 24; // 128 MB
+	
+	/** Class variables */
+	private ByteBuffer[] chunks;
+	private FileChannel channel; // null if the store is not backed by a file
+	private long capacity;
+	private AtomicLong size = new AtomicLong();
+	
+	/**
+	 * MAIN
+	 * 
+	 * Counts the hands in a store file for each category, reading it in parallel.
+	 * 
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length < 1) {
+			System.out.println("Usage: HandStore file");
+			return;
+		}
+		try(HandStore store = open(Paths.get(args[0]))) {
+			long start = System.nanoTime();
+			long[] counts = Arrays.stream(store.split(Runtime.getRuntime().availableProcessors()))
+					.parallel()
+					.map(cursor -> {
+						long[] cursorCounts = new long[Table.OUTCOMES.length];
+						while(cursor.next())
+							cursorCounts[HandEvaluator.category(cursor.getRank())]++;
+						return cursorCounts;
+					})
+					.reduce(new long[Table.OUTCOMES.length], HandEnumerator::add);
+			System.out.printf("%,d hands (%.1f ms)%n", store.size(), (System.nanoTime() - start) / 1e6);
+			for(int outcome = counts.length - 1; outcome >= 0; outcome--)
+				System.out.printf("  %-16s %6.2f%%%n", Table.OUTCOMES[outcome], counts[outcome] * 100.0 / Math.max(1, store.size()));
+		}
+	}
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * Allocates an empty store in direct memory.
+	 * 
+	 * @param capacity most hands the store can hold
+	 */
+	public HandStore(long capacity) {
+		this.capacity = capacity;
+		chunks = new ByteBuffer[chunks(capacity)];
+		for(int chunk = 0; chunk < chunks.length; chunk++)
+			chunks[chunk] = ByteBuffer.allocateDirect(chunkRecords(chunk) * RECORD_SIZE);
+	}
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * Creates (or replaces) an empty store backed by a memory-mapped file, so the operating system can
+	 * write the records out to disk when memory is short. The file is cut down to the hands added on close().
+	 * 
+	 * @param path
+	 * @param capacity most hands the store can hold
+	 * @throws IOException
+	 */
+	public HandStore(Path path, long capacity) throws IOException {
+		this(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING), capacity, 0);
+	}
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * @param channel
+	 * @param capacity
+	 * @param size hands already in the file
+	 * @throws IOException
+	 */
+	private HandStore(FileChannel channel, long capacity, long size) throws IOException {
+		this.channel = channel;
+		this.capacity = capacity;
+		this.size.set(size);
+		chunks = new ByteBuffer[chunks(capacity)];
+		for(int chunk = 0; chunk < chunks.length; chunk++)
+			chunks[chunk] = channel.map(FileChannel.MapMode.READ_WRITE, (long) chunk * CHUNK_RECORDS * RECORD_SIZE,
+					(long) chunkRecords(chunk) * RECORD_SIZE);
+	}
+	
+	/**
+	 * OPEN
+	 * 
+	 * Maps a store file written before, hands can still be added up to its size.
+	 * 
+	 * @param path
+	 * @return the store
+	 * @throws IOException
+	 */
+	public static HandStore open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		long records = channel.size() / RECORD_SIZE;
+		return new HandStore(channel, records, records);
+	}
+	
+	/**
+	 * CHUNKS
+	 * 
+	 * @param capacity
+	 * @return number of chunks needed to hold capacity records
+	 */
+	private static int chunks(long capacity) {
+		if(capacity < 0) throw new IllegalArgumentException("Capacity can't be negative: " + capacity);
+		return (int) ((capacity + CHUNK_RECORDS - 1) / CHUNK_RECORDS);
+	}
+	
+	/**
+	 * CHUNK RECORDS
+	 * 
+	 * @param chunk
+	 * @return number of records in the chunk (the last chunk can be smaller)
+	 */
+	private int chunkRecords(int chunk) {
+		return (int) Math.min(CHUNK_RECORDS, capacity - (long) chunk * CHUNK_RECORDS);
+	}
+	
+	/**
+	 * ADD (OVERLOADED)
+	 * 
+	 * @param player
+	 * @return index of the players hand in the store
+	 */
+	public long add(Player player) {
+		return add(player.getCards(), player.checkHand());
+	}
+	
+	/**
+	 * ADD (OVERLOADED)
+	 * 
+	 * @param cards bitboard of 5 cards (see Card.getBitboard())
+	 * @param rank score of the hand, 0 to MAX_RANK
+	 * @return index of the hand in the store
+	 */
+	public long add(long cards, int rank) {
+		long index = size.getAndIncrement();
+		if(index >= capacity) {
+			size.decrementAndGet();
+			throw new IllegalStateException("Hand store is full (" + capacity + " hands)");
+		}
+		set(index, cards, rank);
+		return index;
+	}
+	
+	/**
+	 * RESERVE
+	 * 
+	 * Claims the next hands in one step, so hands that belong together (e.g. both hands of a round) are stored
+	 * next to each other even when other threads are adding. The hands are then saved with set().
+	 * 
+	 * @param hands
+	 * @return index of the first hand claimed, or -1 if there is not room for all of them (nothing is claimed)
+	 */
+	public long reserve(int hands) {
+		if(hands < 1) throw new IllegalArgumentException("Can't reserve " + hands + " hands");
+		long index = size.getAndAdd(hands);
+		if(index + hands > capacity) {
+			size.addAndGet(-hands);
+			return -1;
+		}
+		return index;
+	}
+	
+	/**
+	 * SET
+	 * 
+	 * Saves a hand at an index below the capacity.
+	 * 
+	 * @param index
+	 * @param cards bitboard of 5 cards
+	 * @param rank score of the hand, 0 to MAX_RANK
+	 */
+	public void set(long index, long cards, int rank) {
+		if(Long.bitCount(cards) != Table.CARDS_PER_PLAYER) throw new IllegalArgumentException("A hand needs " + Table.CARDS_PER_PLAYER + " cards");
+		if(rank < 0 || rank > MAX_RANK) throw new IllegalArgumentException("Rank out of range: " + rank);
+		long record = rank & MAX_RANK;
+		for(int i = 0; cards != 0; i++, cards &= cards - 1)
+			record |= (long) Card.ofBitboard(cards).getIndex() << (56 - 8 * i);
+		chunks[(int) (index / CHUNK_RECORDS)].putLong((int) (index % CHUNK_RECORDS) * RECORD_SIZE, record);
+	}
+	
+	/**
+	 * RECORD
+	 * 
+	 * @param index
+	 * @return the 8 bytes of the record as a long
+	 */
+	private long record(long index) {
+		if(index < 0 || index >= size.get()) throw new IndexOutOfBoundsException("No hand " + index + " in a store of " + size.get());
+		return chunks[(int) (index / CHUNK_RECORDS)].getLong((int) (index % CHUNK_RECORDS) * RECORD_SIZE);
+	}
+	
+	/**
+	 * GET CARDS
+	 * 
+	 * @param index
+	 * @return bitboard of the hand
+	 */
+	public long getCards(long index) {
+		return cards(record(index));
+	}
+	
+	/**
+	 * GET RANK
+	 * 
+	 * @param index
+	 * @return score of the hand
+	 */
+	public int getRank(long index) {
+		return (int) record(index) & MAX_RANK;
+	}
+	
+	/**
+	 * CARDS
+	 * 
+	 * @param record
+	 * @return bitboard of the cards in a record
+	 */
+	private static long cards(long record) {
+		long cards = 0;
+		for(int i = 0; i < Table.CARDS_PER_PLAYER; i++)
+			cards |= Card.ofIndex((int) (record >>> (56 - 8 * i)) & 0xFF).getBitboard();
+		return cards;
+	}
+	
+	/**
+	 * CURSOR (OVERLOADED)
+	 * 
+	 * @return a cursor over every hand added so far
+	 */
+	public Cursor cursor() {
+		return cursor(0, size.get());
+	}
+	
+	/**
+	 * CURSOR (OVERLOADED)
+	 * 
+	 * @param from first hand
+	 * @param to last hand (exclusive)
+	 * @return a cursor over the hands from one index to another
+	 */
+	public Cursor cursor(long from, long to) {
+		if(from < 0 || to > size.get() || from > to) throw new IndexOutOfBoundsException("Range " + from + " to " + to + " outside 0 to " + size.get());
+		return new Cursor(from, to);
+	}
+	
+	/**
+	 * SPLIT
+	 * 
+	 * @param parts
+	 * @return cursors over parts of about the same size which together cover every hand added so far
+	 */
+	public Cursor[] split(int parts) {
+		if(parts < 1) throw new IllegalArgumentException("Can't split into " + parts + " parts");
+		long size = this.size.get();
+		Cursor[] cursors = new Cursor[parts];
+		for(int part = 0; part < parts; part++)
+			cursors[part] = new Cursor(size * part / parts, size * (part + 1) / parts);
+		return cursors;
+	}
+	
+	/**
+	 * CLOSE
+	 * 
+	 * Writes a file backed store out to disk and cuts the file down to the hands added.
+	 * The store can't be used after it is closed.
+	 */
+	@Override
+	public void close() {
+		if(channel == null || !channel.isOpen()) return;
+		try {
+			for(ByteBuffer chunk : chunks)
+				((MappedByteBuffer) chunk).force();
+			chunks = new ByteBuffer[0];
+			channel.truncate(size.get() * RECORD_SIZE);
+			channel.close();
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * GETTERS
+	 */
+	public long size() {
+		return size.get();
+	}
+	
+	public long getCapacity() {
+		return capacity;
+	}
+	
+	/**
+	 * Cursor
+	 * 
+	 * Moves over a range of hands one at a time: call next() and then read the current hand with the getters.
+	 * Each cursor should only be used by one thread, but any number of cursors can read the store at once.
+	 */
+	public final class Cursor {
+
+		/** Class variables */
+		private long index, to, record;
+
+		/**
+		 * CONSTRUCTOR
+		 * 
+		 * @param from
+		 * @param to
+		 */
+		private Cursor(long from, long to) {
+			this.index = from - 1;
+			this.to = to;
+		}
+
+		/**
+		 * NEXT
+		 * 
+		 * @return true if the cursor moved to another hand, false at the end of its range
+		 */
+		public boolean next() {
+			if(index + 1 >= to) return false;
+			index++;
+			record = chunks[(int) (index / CHUNK_RECORDS)].getLong((int) (index % CHUNK_RECORDS) * RECORD_SIZE);
+			return true;
+		}
+
+		/**
+		 * GETTERS
+		 */
+		public long getIndex() {
+			return index;
+		}
+
+		public long getCards() {
+			return cards(record);
+		}
+
+		public Card getCard(int position) { // lowest value first
+			return Card.ofIndex((int) (record >>> (56 - 8 * position)) & 0xFF);
+		}
+
+		public int getRank() {
+			return (int) record & MAX_RANK;
+		}
+
+		public long remaining() {
+			return to - index - 1;
+		}
+	
+	}
+
+}
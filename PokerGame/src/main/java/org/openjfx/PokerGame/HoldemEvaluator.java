@@ -0,0 +1,239 @@
+/**
+ * HoldemEvaluator
+ * 
+ * A class used to rank the best five card hand out of up to seven cards (Texas Hold'em: two hole cards and the board),
+ * without going through the 21 five card hands one by one. The tables are built once when the class is loaded.
+ * 
+ * A bitboard of cards (see Card.getBitboard()) is ranked from the number of cards of each suit and of each value:
+ * 1. If five or more cards share a suit the values of that suit are looked up in FLUSHES
+ *    (with seven cards a flush rules out a full house or four of a kind, so nothing else can beat it)
+ * 2. Otherwise the number of cards of each value is counted a nibble at a time (see HandEvaluator.valueCounts()),
+ *    four of a kind and full houses are read from the counts, straights and high cards are looked up by the values held
+ *    in UNIQUE and the kickers of every other hand are the highest values left, looked up in TOP_RANKS
+ * Every table is indexed by a 13 bit mask of values, so the three take 96 KB.
+ * 
+ * The score returned is the same rank key HandEvaluator returns for the best five of the cards,
+ * so scores of seven card hands can be compared and sorted in the same way.
+ * Fewer than five cards are ranked by what they hold so far (e.g. two hole cards of the same value are a PAIR).
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.util.stream.IntStream;
+
+
+public final class HoldemEvaluator {
+	
+	/** Class constants */
+	final public static int MAX_CARDS = 7;
+	final public static long TOTAL_HANDS = 133_784_560;
+	final public static long[] EXPECTED_COUNTS = new long[] {23_294_460, 58_627_800, 31_433_400, 6_461_620, 6_180_020,
+			4_047_644, 3_473_184, 224_848, 37_260, 4_324};
+	final private static int VALUE_BITS = 1 << 13;
+	final private static int HAND_RANKS = Table.CARDS_PER_PLAYER * HandEvaluator.RANK_BITS; // bits of TOP_RANKS
+	final private static long SUIT_LANES = HandEvaluator.SUIT_LANES;
+	
+	/** Lookup tables */
+	final private static int[] FLUSHES = new int[VALUE_BITS];
+	final private static int[] UNIQUE = new int[VALUE_BITS];
+	final private static int[] TOP_RANKS = new int[VALUE_BITS];
+	
+	static {
+		buildTables();
+	}
+	
+	/**
+	 * CONSTRUCTOR
+	 * 
+	 * Not used, all methods are static.
+	 */
+	private HoldemEvaluator() {
+	}
+	
+	/**
+	 * MAIN
+	 * 
+	 * Ranks every one of the 133,784,560 seven card hands in parallel and prints the count for each category
+	 * next to the expected count, then the number of hands ranked per second.
+	 * Exits with status 1 if any count is wrong.
+	 * 
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		countCategories();
+		long start = System.nanoTime();
+		long[] counts = countCategories();
+		long time = System.nanoTime() - start;
+		boolean correct = true;
+		for(int i = counts.length - 1; i >= 0; i--) {
+			System.out.printf("%-16s %,11d %,11d%s%n", Table.OUTCOMES[i], counts[i], EXPECTED_COUNTS[i], counts[i] == EXPECTED_COUNTS[i] ? "" : "  <-- WRONG");
+			correct &= counts[i] == EXPECTED_COUNTS[i];
+		}
+		System.out.printf("Ranked %,d hands in %.1f ms (%,.0f hands per second)%n", TOTAL_HANDS, time / 1e6, TOTAL_HANDS * 1e9 / time);
+		if(!correct) System.exit(1);
+	}
+	
+	/**
+	 * EVALUATE (OVERLOADED)
+	 * 
+	 * Ranks the hole cards of a player together with the board.
+	 * 
+	 * @param holeCards bitboard
+	 * @param board bitboard
+	 * @return integer value representing the strength of the best five cards
+	 */
+	public static int evaluate(long holeCards, long board) {
+		return evaluate(holeCards | board);
+	}
+	
+	/**
+	 * EVALUATE (OVERLOADED)
+	 * 
+	 * Ranks up to seven cards given as a bitboard (see Card.getBitboard()).
+	 * 
+	 * @param cards
+	 * @return integer value representing the strength of the best five cards
+	 */
+	public static int evaluate(long cards) {
+		for(int suit = 0; suit < Card.SUITES.length; suit++) {
+			long suited = cards & (SUIT_LANES << suit);
+			if(Long.bitCount(suited) >= Table.CARDS_PER_PLAYER) return FLUSHES[(int) Long.compress(suited >>> suit, SUIT_LANES)];
+		}
+		long counts = HandEvaluator.valueCounts(cards);
+		int valueBits = (int) Long.compress(counts | (counts >>> 1) | (counts >>> 2), SUIT_LANES);
+		int unique = UNIQUE[valueBits];
+		if(Integer.bitCount(valueBits) == Long.bitCount(cards)) return unique;
+		long quads = (counts >>> 2) & SUIT_LANES; // 100
+		long triples = counts & (counts >>> 1) & SUIT_LANES; // 011
+		long pairs = (counts >>> 1) & ~counts & SUIT_LANES; // 010
+		if(quads != 0) {
+			int quad = highestValue(quads);
+			return score(HandEvaluator.FOUR_OF_A_KIND, quad, 1, valueBits & ~(1 << quad), 1);
+		}
+		if(triples != 0) {
+			int triple = highestValue(triples);
+			long rest = (triples & ~(1L << (triple << 2))) | pairs; // a second triple counts as the pair
+			if(rest != 0) return score(HandEvaluator.FULL_HOUSE, triple << HandEvaluator.RANK_BITS | highestValue(rest), 2, 0, 0);
+			if(unique >= HandEvaluator.lowestScore(HandEvaluator.STRAIGHT, 0)) return unique;
+			return score(HandEvaluator.TRIPLE, triple, 1, valueBits & ~(1 << triple), 2);
+		}
+		if(unique >= HandEvaluator.lowestScore(HandEvaluator.STRAIGHT, 0)) return unique;
+		int pair = highestValue(pairs);
+		pairs &= ~(1L << (pair << 2));
+		if(pairs == 0) return score(HandEvaluator.PAIR, pair, 1, valueBits & ~(1 << pair), 3);
+		int secondPair = highestValue(pairs);
+		return score(HandEvaluator.TWO_PAIR, pair << HandEvaluator.RANK_BITS | secondPair, 2, valueBits & ~(1 << pair | 1 << secondPair), 1);
+	}
+	
+	/**
+	 * SCORE
+	 * 
+	 * @param category
+	 * @param ranks the values that make the hand, most important first (e.g. the triple and then the pair of a full house)
+	 * @param count number of values in ranks
+	 * @param kickerBits the values the kickers are picked from
+	 * @param kickers number of kickers
+	 * @return the score, with the ranks straight below the category followed by the highest kickers
+	 */
+	private static int score(int category, int ranks, int count, int kickerBits, int kickers) {
+		return category << HandEvaluator.CATEGORY_SHIFT | ranks << (HAND_RANKS - HandEvaluator.RANK_BITS * count)
+				| TOP_RANKS[kickerBits] >>> (HAND_RANKS - HandEvaluator.RANK_BITS * kickers) << (HAND_RANKS - HandEvaluator.RANK_BITS * (count + kickers));
+	}
+	
+	/**
+	 * HIGHEST VALUE
+	 * 
+	 * @param bits a mask with one bit per value nibble
+	 * @return the highest value with a bit set
+	 */
+	private static int highestValue(long bits) {
+		return (63 - Long.numberOfLeadingZeros(bits)) >>> 2;
+	}
+	
+	/**
+	 * COUNT CATEGORIES
+	 * 
+	 * Ranks every seven card hand in parallel.
+	 * 
+	 * @return number of hands in each category, indexed the same as OUTCOMES
+	 */
+	public static long[] countCategories() {
+		return IntStream.range(0, Card.DECK_SIZE - MAX_CARDS + 1)
+				.parallel()
+				.mapToObj(HoldemEvaluator::countCategories)
+				.reduce(new long[Table.OUTCOMES.length], HandEnumerator::add);
+	}
+	
+	/**
+	 * COUNT CATEGORIES (OVERLOADED)
+	 * 
+	 * Ranks every hand whose lowest card (by bitboard bit) is the one passed in, adding one card at a time to the bitboard.
+	 * 
+	 * @param first
+	 * @return number of hands in each category
+	 */
+	private static long[] countCategories(int first) {
+		long[] counts = new long[Table.OUTCOMES.length];
+		long a = 1L << first;
+		for(int i = first + 1; i < Card.DECK_SIZE; i++) {
+			long b = a | 1L << i;
+			for(int j = i + 1; j < Card.DECK_SIZE; j++) {
+				long c = b | 1L << j;
+				for(int k = j + 1; k < Card.DECK_SIZE; k++) {
+					long d = c | 1L << k;
+					for(int l = k + 1; l < Card.DECK_SIZE; l++) {
+						long e = d | 1L << l;
+						for(int m = l + 1; m < Card.DECK_SIZE; m++) {
+							long f = e | 1L << m;
+							for(int n = m + 1; n < Card.DECK_SIZE; n++)
+								counts[HandEvaluator.category(evaluate(f | 1L << n))]++;
+						}
+					}
+				}
+			}
+		}
+		return counts;
+	}
+	
+	/**
+	 * BUILD TABLES
+	 * 
+	 * Fills the tables for every mask of values. TOP_RANKS holds the five highest values (highest first, RANK_BITS each,
+	 * with no value after the last one if there are fewer), FLUSHES and UNIQUE the best straight flush or straight
+	 * among the values and otherwise the flush or high card of the five highest.
+	 */
+	private static void buildTables() {
+		for(int valueBits = 0; valueBits < VALUE_BITS; valueBits++) {
+			int ranks = 0, count = 0;
+			for(int value = Card.VALUES.length - 1; value >= 0 && count < Table.CARDS_PER_PLAYER; value--)
+				if((valueBits & (1 << value)) != 0) ranks |= value << (HAND_RANKS - HandEvaluator.RANK_BITS * ++count);
+			TOP_RANKS[valueBits] = ranks;
+			int straight = straightHighCard(valueBits);
+			if(straight >= 0) {
+				int category = straight == Card.VALUES.length - 1 ? HandEvaluator.ROYAL_FLUSH : HandEvaluator.STRAIGHT_FLUSH;
+				FLUSHES[valueBits] = HandEvaluator.lowestScore(category, straight);
+				UNIQUE[valueBits] = HandEvaluator.lowestScore(HandEvaluator.STRAIGHT, straight);
+			}
+			else {
+				FLUSHES[valueBits] = HandEvaluator.FLUSH << HandEvaluator.CATEGORY_SHIFT | ranks;
+				UNIQUE[valueBits] = HandEvaluator.HIGH_CARD << HandEvaluator.CATEGORY_SHIFT | ranks;
+			}
+		}
+	}
+	
+	/**
+	 * STRAIGHT HIGH CARD
+	 * 
+	 * @param valueBits
+	 * @return value of the highest card of the best straight among the values, or -1 if there is none
+	 */
+	private static int straightHighCard(int valueBits) {
+		for(int high = Card.VALUES.length - 1; high >= Table.CARDS_PER_PLAYER - 1; high--)
+			if((valueBits & (0x1F << (high - 4))) == 0x1F << (high - 4)) return high;
+		int wheel = 0x100F; // A, 2, 3, 4, 5
+		return (valueBits & wheel) == wheel ? 3 : -1;
+	}
+
+}
@@ -0,0 +1,446 @@
+/**
+ * HoldemTable
+ * 
+ * A class used to run a game of Texas Hold'em without any user interface, using the same Card, Deck and Player
+ * classes as the five card draw Table. Owns its own deck, players, board and pot, so any number of tables can exist at once.
+ * 
+ * Seats, coins and results work the same way as at a Table (seat COMPUTER, seat YOU, then up to Table.MAX_SEATS - 2 more
+ * computers, a seat with no coins sits out). Every player is dealt HOLE_CARDS and puts ANTE coins in the pot, then
+ * the board is dealt in streets with a betting round on each:
+ * 1. PREFLOP - no board cards yet
+ * 2. FLOP - three board cards
+ * 3. TURN - a fourth board card
+ * 4. RIVER - the fifth board card, after the betting the hands still in the round are shown down
+ * On each street you bet (or check with a bet of 0) and each computer in the round calls or folds,
+ * a computer calls when its hand so far is at least the MIN_COMPUTER_PROCEED of the street. If you fold the board is
+ * dealt out and the computers still in the round show down for the pot.
+ * 
+ * Every hand is ranked from the hole cards and the board by HoldemEvaluator, so the scores are the same
+ * rank keys as at a Table and the showdown is the same single pass over the scores.
+ * A HoldemTable is not thread safe, each table should only be used by one thread at a time.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+
+public class HoldemTable {
+	
+	/** Class constants */
+	final public static int HOLE_CARDS = 2, BOARD_CARDS = 5;
+	final public static int ANTE = 1;
+	
+	/** Streets (the betting rounds, also the index into CARDS_ON_BOARD and MIN_COMPUTER_PROCEED) */
+	final public static int PREFLOP = 0, FLOP = 1, TURN = 2, RIVER = 3;
+	final public static String[] STREETS = new String[] {"Pre-flop", "Flop", "Turn", "River"};
+	final public static int[] CARDS_ON_BOARD = new int[] {0, 3, 4, BOARD_CARDS};
+	final public static int[] MIN_COMPUTER_PROCEED = new int[] {
+			HandEvaluator.lowestScore(HandEvaluator.HIGH_CARD, 9), // a jack or better
+			HandEvaluator.lowestScore(HandEvaluator.PAIR, 5), // any pair of sevens
+			HandEvaluator.lowestScore(HandEvaluator.PAIR, 9), // any pair of jacks
+			HandEvaluator.lowestScore(HandEvaluator.TWO_PAIR, 0)}; // any two pair
+	
+	/** Class variables */
+	private RandomGenerator random;
+	private Deck deck;
+	private Player[] players;
+	private int[] scores;
+	private long board; // bitboard of the board cards dealt so far
+	private int inRound; // bit i is set while seat i is still in the round
+	private int winners; // bit i is set for every seat that won the last showdown
+	private int pot, lastPot, round, street, stage, result;
+	
+	/**
+	 * MAIN
+	 * 
+	 * Plays a number of rounds at a table with both sides played by playRound() and prints the results.
+	 * 
+	 * Arguments (all optional): number of rounds, number of seats, seed.
+	 * 
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		long rounds = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+		int seats = args.length > 1 ? Integer.parseInt(args[1]) : Table.HEADS_UP;
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 2020;
+		HoldemTable table = new HoldemTable(new SplittableRandom(seed), seats);
+		long[] results = new long[Table.COMPUTER_FOLDS + 1];
+		long games = 1, start = System.nanoTime();
+		for(long round = 0; round < rounds; round++) {
+			if(table.isGameOver()) {
+				table.setUpGame();
+				games++;
+			}
+			else table.nextRound();
+			results[table.playRound()]++;
+		}
+		long time = System.nanoTime() - start;
+		System.out.printf("Rounds:\t\t\t%,d (%,d games, %d seats)%n", rounds, games, seats);
+		System.out.printf("Rounds won:\t\tcomputer %.2f%%, you %.2f%%, draw %.2f%% (computer folds %.2f%%)%n",
+				results[Table.COMPUTER_WINS] * 100.0 / rounds, results[Table.YOU_WIN] * 100.0 / rounds,
+				results[Table.DRAW] * 100.0 / rounds, results[Table.COMPUTER_FOLDS] * 100.0 / rounds);
+		System.out.printf("Time:\t\t\t%.1f s (%.0f ns per round)%n", time / 1e9, (double) time / rounds);
+	}
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * Uses a new randomly seeded generator for dealing.
+	 */
+	public HoldemTable() {
+		this(new SplittableRandom());
+	}
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * Uses a generator created from a seed, the same seed and the same actions always play out the same game.
+	 * 
+	 * @param seed
+	 */
+	public HoldemTable(long seed) {
+		this(new SplittableRandom(seed));
+	}
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * Sets up a new heads-up game.
+	 * 
+	 * @param random
+	 */
+	public HoldemTable(RandomGenerator random) {
+		this(random, Table.HEADS_UP);
+	}
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * Sets up a new game, every seat from 2 up is another computer.
+	 * 
+	 * @param random
+	 * @param seats Table.HEADS_UP to Table.MAX_SEATS
+	 */
+	public HoldemTable(RandomGenerator random, int seats) {
+		if(seats < Table.HEADS_UP || seats > Table.MAX_SEATS) throw new IllegalArgumentException("A table has " + Table.HEADS_UP + " to " + Table.MAX_SEATS + " seats, not " + seats);
+		this.random = random;
+		this.players = new Player[seats];
+		this.scores = new int[seats];
+		setUpGame();
+	}
+	
+	/**
+	 * SET UP GAME
+	 * 
+	 * Creates the deck and players the first time, after that the same deck and players are reset.
+	 * Deals the first round.
+	 */
+	public void setUpGame() {
+		if(deck == null) {
+			deck = new Deck(random);
+			for(int seat = 0; seat < players.length; seat++)
+				players[seat] = new Player(deck);
+		}
+		else {
+			deck.setDeck();
+			for(Player player : players)
+				player.reset(deck);
+		}
+		inRound = (1 << players.length) - 1;
+		pot = 0;
+		round = 1;
+		deal();
+	}
+	
+	/**
+	 * NEXT ROUND
+	 * 
+	 * Deals a new round to the players with coins left.
+	 */
+	public void nextRound() {
+		inRound = 0;
+		for(int seat = 0; seat < players.length; seat++)
+			if(players[seat].getCoins() > 0) inRound |= 1 << seat;
+		round++;
+		deal();
+	}
+	
+	/**
+	 * DEAL
+	 * 
+	 * Puts every card back in the deck, deals the hole cards of every player in the round and takes their ante.
+	 */
+	private void deal() {
+		deck.setDeck();
+		for(int seats = inRound; seats != 0; seats &= seats - 1) {
+			Player player = players[Integer.numberOfTrailingZeros(seats)];
+			player.generateHand(deck, HOLE_CARDS);
+			player.setCoins(-ANTE);
+		}
+		pot += ANTE * Integer.bitCount(inRound);
+		board = 0;
+		street = PREFLOP;
+		stage = Table.BETTING;
+		result = Table.NO_RESULT;
+		winners = 0;
+		evaluateHands();
+	}
+	
+	/**
+	 * CAN BET
+	 * 
+	 * @return true if every player in the round has coins left to bet with, otherwise you can only check
+	 */
+	public boolean canBet() {
+		return getMaxBetAmount() > 0;
+	}
+	
+	/**
+	 * GET MAX BET AMOUNT
+	 * 
+	 * @return the largest amount that can be bet based on the balance of every player in the round (0 if a player has no coins)
+	 */
+	public int getMaxBetAmount() {
+		int maxBetAmount = Table.MAX_BET_AMOUNT;
+		for(int seats = inRound; seats != 0; seats &= seats - 1)
+			maxBetAmount = Math.min(maxBetAmount, players[Integer.numberOfTrailingZeros(seats)].getCoins());
+		return maxBetAmount;
+	}
+	
+	/**
+	 * BET
+	 * 
+	 * Bets on the current street, each computer in the round calls or folds in seat order.
+	 * A bet of 0 is the same as checking. If every computer folds you win the pot,
+	 * otherwise the next street is dealt, or the hands are shown down after the river.
+	 * 
+	 * @param betAmount
+	 * @return the result of the round, NO_RESULT if the round goes on to the next street
+	 */
+	public int bet(int betAmount) {
+		checkStage(Table.BETTING);
+		if(betAmount < 0 || betAmount > getMaxBetAmount())
+			throw new IllegalArgumentException("Invalid bet amount: " + betAmount);
+		if(betAmount > 0) {
+			players[Table.YOU].setCoins(-betAmount);
+			pot += betAmount;
+			for(int seats = inRound & ~(1 << Table.YOU); seats != 0; seats &= seats - 1) {
+				int seat = Integer.numberOfTrailingZeros(seats);
+				if(scores[seat] >= MIN_COMPUTER_PROCEED[street]) {
+					players[seat].setCoins(-betAmount);
+					pot += betAmount;
+				}
+				else inRound &= ~(1 << seat);
+			}
+			if(inRound == 1 << Table.YOU) {
+				winners = 1 << Table.YOU;
+				return endRound(Table.COMPUTER_FOLDS);
+			}
+		}
+		if(street == RIVER) return showdown();
+		dealStreet(street + 1);
+		return Table.NO_RESULT;
+	}
+	
+	/**
+	 * CHECK
+	 * 
+	 * @return the result of the round, NO_RESULT if the round goes on to the next street
+	 */
+	public int check() {
+		return bet(0);
+	}
+	
+	/**
+	 * FOLD
+	 * 
+	 * Gives up your hand, the rest of the board is dealt and the computers still in the round show down for the pot.
+	 * 
+	 * @return the result of the round
+	 */
+	public int fold() {
+		checkStage(Table.BETTING);
+		inRound &= ~(1 << Table.YOU);
+		dealStreet(RIVER);
+		return showdown();
+	}
+	
+	/**
+	 * PLAY ROUND
+	 * 
+	 * Plays your side of the round just dealt with the same rule the computers use:
+	 * bets 1 coin on every street where your hand is at least the MIN_COMPUTER_PROCEED of the street, otherwise checks.
+	 * 
+	 * @return the result of the round
+	 */
+	public int playRound() {
+		int result = Table.NO_RESULT;
+		while(result == Table.NO_RESULT)
+			result = bet(canBet() && scores[Table.YOU] >= MIN_COMPUTER_PROCEED[street] ? 1 : 0);
+		return result;
+	}
+	
+	/**
+	 * DEAL STREET
+	 * 
+	 * Deals board cards up to the number for a street and ranks the hands again.
+	 * 
+	 * @param street
+	 */
+	private void dealStreet(int street) {
+		while(Long.bitCount(board) < CARDS_ON_BOARD[street])
+			board |= deck.drawCard().getBitboard();
+		this.street = street;
+		evaluateHands();
+	}
+	
+	/**
+	 * SHOWDOWN
+	 * 
+	 * Finds the best score of the players still in the round in one pass and splits the pot between the winners
+	 * (the odd coin goes to the first of them), the same as Table.
+	 * 
+	 * @return the result of the round
+	 */
+	private int showdown() {
+		int best = -1;
+		winners = 0;
+		for(int seats = inRound; seats != 0; seats &= seats - 1) {
+			int seat = Integer.numberOfTrailingZeros(seats);
+			if(scores[seat] > best) {
+				best = scores[seat];
+				winners = 0;
+			}
+			if(scores[seat] == best) winners |= 1 << seat;
+		}
+		int share = pot / Integer.bitCount(winners);
+		players[Integer.numberOfTrailingZeros(winners)].setCoins(pot - share * Integer.bitCount(winners));
+		for(int seats = winners; seats != 0; seats &= seats - 1)
+			players[Integer.numberOfTrailingZeros(seats)].setCoins(share);
+		if(winners == 1 << Table.YOU) return endRound(Table.YOU_WIN);
+		if((winners & 1 << Table.YOU) != 0) return endRound(Table.DRAW);
+		return endRound(Table.COMPUTER_WINS);
+	}
+	
+	/**
+	 * END ROUND
+	 * 
+	 * Pays a pot won by you alone, empties the pot and checks if the game is over.
+	 * 
+	 * @param result
+	 * @return the result passed in
+	 */
+	private int endRound(int result) {
+		if(result == Table.COMPUTER_FOLDS) players[Table.YOU].setCoins(pot);
+		this.result = result;
+		lastPot = pot;
+		pot = 0;
+		stage = isOutOfCoins() ? Table.GAME_OVER : Table.ROUND_OVER;
+		return result;
+	}
+	
+	/**
+	 * IS OUT OF COINS
+	 * 
+	 * @return true if you or every computer has no coins left
+	 */
+	private boolean isOutOfCoins() {
+		if(players[Table.YOU].getCoins() <= 0) return true;
+		for(int seat = 0; seat < players.length; seat++)
+			if(seat != Table.YOU && players[seat].getCoins() > 0) return false;
+		return true;
+	}
+	
+	/**
+	 * EVALUATE HANDS
+	 * 
+	 * Ranks the hole cards of every player in the round together with the board.
+	 */
+	private void evaluateHands() {
+		for(int seats = inRound; seats != 0; seats &= seats - 1) {
+			int seat = Integer.numberOfTrailingZeros(seats);
+			scores[seat] = players[seat].checkHand(board);
+		}
+	}
+	
+	/**
+	 * CHECK STAGE
+	 * 
+	 * @param expected
+	 */
+	private void checkStage(int expected) {
+		if(stage != expected) throw new IllegalStateException("Action not allowed at stage " + stage);
+	}
+	
+	/**
+	 * GETTERS
+	 */
+	public Deck getDeck() {
+		return deck;
+	}
+	
+	public Player getComputer() {
+		return players[Table.COMPUTER];
+	}
+	
+	public Player getYou() {
+		return players[Table.YOU];
+	}
+	
+	public Player getPlayer(int seat) {
+		return players[seat];
+	}
+	
+	public int getSeats() {
+		return players.length;
+	}
+	
+	public boolean isInRound(int seat) { // dealt in and not folded
+		return (inRound & 1 << seat) != 0;
+	}
+	
+	public int getWinners() { // bit i is set for every seat that won the last round
+		return winners;
+	}
+	
+	public long getBoard() {
+		return board;
+	}
+	
+	public int getStreet() {
+		return street;
+	}
+	
+	public int getPot() {
+		return pot;
+	}
+	
+	public int getLastPot() { // the pot paid out at the end of the last round
+		return lastPot;
+	}
+	
+	public int getRound() {
+		return round;
+	}
+	
+	public int getStage() {
+		return stage;
+	}
+	
+	public int getResult() {
+		return result;
+	}
+	
+	public int getScore(int seat) {
+		return scores[seat];
+	}
+	
+	public boolean isGameOver() {
+		return stage == Table.GAME_OVER;
+	}
+
+}
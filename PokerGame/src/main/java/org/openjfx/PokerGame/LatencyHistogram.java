@@ -0,0 +1,135 @@
+/**
+ * LatencyHistogram
+ * 
+ * A class used to count how long something takes, in nanoseconds, with very little cost to the thread being timed.
+ * 
+ * Values are counted in log-linear buckets (like an HDR histogram): the power of two of the value picks a group
+ * and the next SUB_BUCKET_BITS bits below the highest bit pick the bucket in the group,
+ * so every bucket is within 1/16 (6.25%) of the values it holds.
+ * The counts are striped: each thread adds to one of STRIPES copies of the buckets (picked by its thread id),
+ * so threads timing at the same time rarely touch the same counter. The copies are only added up when read.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+public class LatencyHistogram {
+	
+	/** Class constants */
+	final public static int SUB_BUCKET_BITS = 4;
+	final public static int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	final public static int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+	final public static int STRIPES = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1) * 2;
+	
+	/** Class variables */
+	private AtomicLongArray counts = new AtomicLongArray(STRIPES * BUCKETS);
+	
+	/**
+	 * RECORD
+	 * 
+	 * @param nanos
+	 */
+	public void record(long nanos) {
+		int stripe = (int) Thread.currentThread().threadId() & (STRIPES - 1);
+		counts.getAndIncrement(stripe * BUCKETS + bucket(Math.max(0, nanos)));
+	}
+	
+	/**
+	 * BUCKET
+	 * 
+	 * Values below SUB_BUCKETS get a bucket each, larger values share a bucket with values within 1/16 of them.
+	 * 
+	 * @param value
+	 * @return index of the bucket for the value
+	 */
+	static int bucket(long value) {
+		if(value < SUB_BUCKETS) return (int) value;
+		int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+		return exponent * SUB_BUCKETS + (int) (value >>> (exponent - 1)) - SUB_BUCKETS;
+	}
+	
+	/**
+	 * LOWEST VALUE
+	 * 
+	 * @param bucket
+	 * @return the smallest value counted in the bucket
+	 */
+	static long lowestValue(int bucket) {
+		if(bucket < SUB_BUCKETS) return bucket;
+		int exponent = bucket / SUB_BUCKETS;
+		return (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << (exponent - 1);
+	}
+	
+	/**
+	 * SNAPSHOT
+	 * 
+	 * @return the count of every bucket added up across the stripes
+	 */
+	public long[] snapshot() {
+		long[] total = new long[BUCKETS];
+		for(int stripe = 0; stripe < STRIPES; stripe++)
+			for(int bucket = 0; bucket < BUCKETS; bucket++)
+				total[bucket] += counts.get(stripe * BUCKETS + bucket);
+		return total;
+	}
+	
+	/**
+	 * GET COUNT
+	 * 
+	 * @return number of values recorded
+	 */
+	public long getCount() {
+		long count = 0;
+		for(long bucketCount : snapshot())
+			count += bucketCount;
+		return count;
+	}
+	
+	/**
+	 * GET PERCENTILE
+	 * 
+	 * @param fraction (e.g. 0.99)
+	 * @return the lowest value of the bucket holding that fraction of the values, 0 if nothing was recorded
+	 */
+	public long getPercentile(double fraction) {
+		return percentile(snapshot(), fraction);
+	}
+	
+	/**
+	 * PERCENTILE
+	 * 
+	 * @param buckets a snapshot
+	 * @param fraction
+	 * @return the lowest value of the bucket holding that fraction of the values
+	 */
+	static long percentile(long[] buckets, double fraction) {
+		long count = 0;
+		for(long bucketCount : buckets)
+			count += bucketCount;
+		long target = Math.max(1, (long) Math.ceil(fraction * count)), seen = 0;
+		for(int bucket = 0; bucket < buckets.length; bucket++) {
+			seen += buckets[bucket];
+			if(seen >= target && count > 0) return lowestValue(bucket);
+		}
+		return 0;
+	}
+	
+	/**
+	 * TO STRING
+	 * 
+	 * @return count and percentiles, e.g. "count=1000 p50=1200ns p90=1400ns p99=2048ns p99.9=8192ns max=9216ns"
+	 */
+	public String toString() {
+		long[] buckets = snapshot();
+		long count = 0;
+		for(long bucketCount : buckets)
+			count += bucketCount;
+		return String.format("count=%d p50=%dns p90=%dns p99=%dns p99.9=%dns max=%dns", count, percentile(buckets, 0.5),
+				percentile(buckets, 0.9), percentile(buckets, 0.99), percentile(buckets, 0.999), percentile(buckets, 1));
+	}
+
+}
@@ -0,0 +1,212 @@
+/**
+ * LoadClient
+ * 
+ * A class used to put load on a GameServer running on localhost.
+ * 
+ * Opens a number of idle connections (each sends one PING and then waits) and a number of active bots,
+ * each bot at its own table playing rounds as fast as the server replies:
+ * NEXT, then OPEN, REFRESH (random cards), and CHECK or BET and SUBMIT if the round can be opened.
+ * Every connection runs on its own virtual thread. The time from sending a command to reading its reply
+ * is recorded for every command and the percentiles are printed at the end.
+ * 
+ * Each connection uses a file descriptor on both sides, so the open file limit (ulimit -n) of both
+ * processes has to be above the number of connections.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+public class LoadClient {
+	
+	/** Class constants */
+	final public static int DEFAULT_IDLE_CONNECTIONS = 10_000;
+	final public static int DEFAULT_BOTS = 100;
+	final public static int DEFAULT_ROUNDS = 200;
+	
+	/**
+	 * MAIN
+	 * 
+	 * Arguments (all optional): port, idle connections, bots, rounds per bot.
+	 * 
+	 * @param args
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : GameServer.DEFAULT_PORT;
+		int idleConnections = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_IDLE_CONNECTIONS;
+		int bots = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_BOTS;
+		int rounds = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_ROUNDS;
+		try(ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			CountDownLatch idleReady = new CountDownLatch(idleConnections), finished = new CountDownLatch(1);
+			long start = System.nanoTime();
+			List<Future<?>> idle = new ArrayList<>();
+			for(int i = 0; i < idleConnections; i++)
+				idle.add(executor.submit(() -> idle(port, idleReady, finished)));
+			idleReady.await();
+			System.out.printf("%,d idle connections open after %.1f s%n", idleConnections, (System.nanoTime() - start) / 1e9);
+			start = System.nanoTime();
+			List<Future<long[]>> results = new ArrayList<>();
+			for(int i = 0; i < bots; i++) {
+				long seed = i;
+				results.add(executor.submit(() -> play(port, rounds, seed)));
+			}
+			long[][] latencies = new long[bots][];
+			int total = 0;
+			for(int i = 0; i < bots; i++) {
+				latencies[i] = results.get(i).get();
+				total += latencies[i].length;
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+			finished.countDown();
+			for(Future<?> connection : idle)
+				connection.get();
+			long[] all = new long[total];
+			for(int i = 0, j = 0; i < bots; i++) {
+				System.arraycopy(latencies[i], 0, all, j, latencies[i].length);
+				j += latencies[i].length;
+			}
+			Arrays.sort(all);
+			System.out.printf("%,d bots played %,d rounds each: %,d commands in %.1f s (%,.0f per second)%n", bots, rounds, total, seconds, total / seconds);
+			System.out.printf("Latency: p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms%n", percentile(all, 0.5),
+					percentile(all, 0.99), percentile(all, 0.999), percentile(all, 1));
+		}
+	}
+	
+	/**
+	 * IDLE
+	 * 
+	 * Opens a connection, checks it with a PING and keeps it open until the bots are finished.
+	 * 
+	 * @param port
+	 * @param ready
+	 * @param finished
+	 * @return null (so it can be submitted as a Callable and throw)
+	 * @throws Exception
+	 */
+	private static Void idle(int port, CountDownLatch ready, CountDownLatch finished) throws Exception {
+		try(Connection connection = new Connection(port)) {
+			connection.send("PING");
+			ready.countDown();
+			finished.await();
+			connection.send("QUIT");
+		}
+		return null;
+	}
+	
+	/**
+	 * PLAY
+	 * 
+	 * Plays rounds at a new table.
+	 * 
+	 * @param port
+	 * @param rounds
+	 * @param seed
+	 * @return the latency of every command in nanoseconds
+	 * @throws IOException
+	 */
+	private static long[] play(int port, int rounds, long seed) throws IOException {
+		SplittableRandom random = new SplittableRandom(seed);
+		try(Connection connection = new Connection(port)) {
+			connection.send("NEW " + seed);
+			for(int round = 0; round < rounds; round++) {
+				String state = connection.send("NEXT");
+				if(state.contains("opener=NOBODY")) continue;
+				connection.send("OPEN");
+				StringBuilder refresh = new StringBuilder("REFRESH");
+				for(int position = 1, refreshed = 0; position <= Table.CARDS_PER_PLAYER; position++)
+					if(refreshed < Table.ALLOWED_REFRESHABLE_CARDS && random.nextBoolean()) {
+						refresh.append(' ').append(position);
+						refreshed++;
+					}
+				connection.send(refresh.toString());
+				if(random.nextBoolean() && !connection.send("BET").startsWith("ERR")) connection.send("SUBMIT 1");
+				else connection.send("CHECK");
+			}
+			connection.send("QUIT");
+			return connection.getLatencies();
+		}
+	}
+	
+	/**
+	 * PERCENTILE
+	 * 
+	 * @param sorted latencies in nanoseconds
+	 * @param fraction
+	 * @return the latency in milliseconds
+	 */
+	private static double percentile(long[] sorted, double fraction) {
+		if(sorted.length == 0) return 0;
+		return sorted[(int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1)] / 1e6;
+	}
+	
+	/**
+	 * Connection
+	 * 
+	 * A connection to the server that sends one command at a time and times the reply.
+	 */
+	private static final class Connection implements AutoCloseable {
+
+		private final Socket socket;
+		private final BufferedReader in;
+		private final BufferedWriter out;
+		private long[] latencies = new long[64];
+		private int commands;
+
+		Connection(int port) throws IOException {
+			socket = new Socket(InetAddress.getLoopbackAddress(), port);
+			socket.setTcpNoDelay(true);
+			in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+			out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+		}
+
+		/**
+		 * SEND
+		 * 
+		 * @param command
+		 * @return the reply (null after QUIT)
+		 * @throws IOException
+		 */
+		String send(String command) throws IOException {
+			long start = System.nanoTime();
+			out.write(command);
+			out.newLine();
+			out.flush();
+			if(command.equals("QUIT")) return null;
+			String reply = in.readLine();
+			if(reply == null) throw new IOException("Server closed the connection");
+			if(commands == latencies.length) latencies = Arrays.copyOf(latencies, commands * 2);
+			latencies[commands++] = System.nanoTime() - start;
+			return reply;
+		}
+
+		long[] getLatencies() {
+			return Arrays.copyOf(latencies, commands);
+		}
+
+		@Override
+		public void close() throws IOException {
+			socket.close();
+		}
+	
+	}
+
+}
@@ -13,6 +13,7 @@
  * 4. If not, checks if you can open
  * 5. Asks if you want to play
  * 6. If so, both players add 1 coin to the pot and are given an opportunity to refresh up to 4 cards
+ *    (the exact chance of finishing with each hand is shown for the cards selected)
  * 7. Automatically refreshes computers hand
  * 8. Asks you if you want to check or bet
  * 9. If you check, both hands are evaluated and winner takes pot
@@ -32,8 +33,17 @@ package org.openjfx.PokerGame;
 import java.util.HashMap;
 import java.util.Map;
 import javafx.application.Application;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.BooleanBinding;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
 import javafx.beans.value.WritableBooleanValue;
 import javafx.stage.Stage;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
@@ -50,35 +60,42 @@ import javafx.geometry.Pos;
 /**
  * Driver class for program. 
  * Extends the Application class from JavaFX.
+ * The game itself is run by a Table object, this class only shows it and passes on button presses.
+ * 
+ * Both scenes are built once in start(). The labels and controls of the main page are bound to the
+ * properties below, so an action only sets the properties that changed and JavaFX updates just those nodes.
+ * The controls under the action label are all in the scene, the CONTROLS property picks which are shown.
  */
 public class Main extends Application {
 
-	/** Class constants */
-	final public static int STARTING_COINS = 10;
-	final public static int CARDS_PER_PLAYER = 5;
-	final private static int ALLOWED_REFRESHABLE_CARDS = 4;
-	final private static int MIN_OPEN = 109; // pair of jacks value
-	final private static int MIN_COMPUTER_PROCEED = 200; // two pair value
-	final private static int MAX_BET_AMOUNT = 3;
-	final private static String[] OUTCOMES = new String[] {"High Card", "Pair", "Two Pair", "Triple", "Straight", "Flush", 
-			"Full House", "Four Of A Kind", "Straight Flush", "Royal Flush"};
+	/** Controls shown under the action label */
+	final private static int OPEN_CONTROLS = 0, NEXT_ROUND_CONTROLS = 1, REFRESH_CONTROLS = 2, CHECK_CONTROLS = 3,
+			CHECK_OR_BET_CONTROLS = 4, BET_CONTROLS = 5, NO_CONTROLS = 6;
 	
 	/** Class variables */
-	public static Deck deck; // public so Player class can access it
-	private static Player computer, you;
-	private static int pot, round;
-	private static int[] scores = new int[2];
-	private static String actionLabelText;
+	private static Table table;
+	private static EquityCalculator equityCalculator = new EquityCalculator();
+	private static StringBuilder handText = new StringBuilder(), actionText = new StringBuilder(), oddsText = new StringBuilder(); // reused for every update
+	private static boolean seedingSelection; // true while openGame() pre-selects the cards, the odds are then looked up once
+	
+	/** Game state shown on the main page */
+	private static IntegerProperty round = new SimpleIntegerProperty(), pot = new SimpleIntegerProperty();
+	private static IntegerProperty computersCoins = new SimpleIntegerProperty(), yourCoins = new SimpleIntegerProperty();
+	private static IntegerProperty controls = new SimpleIntegerProperty(NO_CONTROLS), maxBetAmount = new SimpleIntegerProperty();
+	private static StringProperty yourHand = new SimpleStringProperty(""), equity = new SimpleStringProperty(""), action = new SimpleStringProperty("");
+	private static StringProperty drawOdds = new SimpleStringProperty("");
+	private static BooleanProperty gameOver = new SimpleBooleanProperty();
 	
 	/** JavaFX variables */
-	private static Label[] labels = new Label[5];
+	private static Label[] labels = new Label[7];
 	private static Scene sceneLandingPage, sceneMainPage;
 	private static Stage window;
 	private static VBox layoutLandingPage, layoutMainPage;
 	private static HBox layoutHorizontalButtons;
 	private static Separator[] separators = new Separator[3];
-	private static CheckBox[] checkboxes = new CheckBox[CARDS_PER_PLAYER];
-	private static RadioButton[] radioButtons = new RadioButton[MAX_BET_AMOUNT];
+	private static CheckBox[] checkboxes = new CheckBox[Table.CARDS_PER_PLAYER];
+	private static RadioButton[] radioButtons = new RadioButton[Table.MAX_BET_AMOUNT];
+	private static ToggleGroup betAmountToggle = new ToggleGroup();
 	private static Map<String, Button> buttons = new HashMap<String, Button>();
 	
 	
@@ -97,7 +114,7 @@ public class Main extends Application {
 	 * START
 	 * 
 	 * Called from the launch method in main.
-	 * Sets up application window.
+	 * Sets up application window and both pages.
 	 * 
 	 * @param primaryStage
 	 */
@@ -126,6 +143,8 @@ public class Main extends Application {
 		sceneLandingPage = new Scene(layoutLandingPage, 300, 300);
 		window.setScene(sceneLandingPage);
 		
+		setUpMainPage();
+		
 		// when the game is started...
 		buttons.get("startButton").setOnAction(e -> setUpGame());
 		
@@ -154,19 +173,11 @@ public class Main extends Application {
 	}
 	
 	/**
-	 * SET UP GAME
+	 * SET UP MAIN PAGE
 	 * 
-	 * Creates a new deck and new players.
-	 * Sets up the layout for main page.
-	 * Evaluates both hands and checks if players can open.
+	 * Builds the main page once and binds its labels and controls to the game state properties.
 	 */
-	private void setUpGame() {
-		deck = new Deck();
-		computer = new Player();
-		you = new Player();
-		pot = 0;
-		round = 1;
-		layoutHorizontalButtons = new HBox(10);
+	private void setUpMainPage() {
 		for(int i = 0; i < separators.length; i++) separators[i] = new Separator();
 		for(int i = 0; i < labels.length; i++) labels[i] = new Label();
 		labels[0].setStyle("-fx-font: 24 arial;");
@@ -174,58 +185,129 @@ public class Main extends Application {
 		labels[2].setStyle("-fx-font: 13 arial; -fx-font-weight: bold;");
 		labels[3].setStyle("-fx-font: 15 arial; -fx-font-weight: bold;");
 		labels[4].setStyle("-fx-font: 13 arial;");
-		evaluateHands();
-		checkOpen();
-		updateMainPage();
+		labels[5].setStyle("-fx-font: 11 arial;");
+		labels[6].setStyle("-fx-font: 11 arial;");
+		labels[0].textProperty().bind(Bindings.format("Round: %d", round));
+		labels[1].textProperty().bind(Bindings.format("Coins\nComputer:\t%d\nYou:\t\t\t%d", computersCoins, yourCoins));
+		labels[2].textProperty().bind(Bindings.format("Pot\n%d", pot));
+		labels[3].textProperty().bind(yourHand);
+		labels[4].textProperty().bind(action);
+		labels[5].textProperty().bind(equity);
+		labels[6].textProperty().bind(drawOdds);
+		
+		// the equity is only worked out again when your hand changes
+		yourHand.addListener((o, oldV, newV) -> equity.set(String.format("Against a random hand:\n%s", equityCalculator.calculate(table.getYou()))));
+		
+		/* 
+		 * Following code taken from stack overflow:
+		 * https://stackoverflow.com/questions/39045377/how-to-restrict-amount-of-selected-checkboxes-javafx 
+		 */
+		int maxSel = Table.ALLOWED_REFRESHABLE_CARDS;
+		for (int i = 0 ; i < checkboxes.length; i++) {
+			checkboxes[i] = new CheckBox();
+			checkboxes[i].selectedProperty().addListener((o, oldV, newV) -> {
+		        if(newV) {
+		            int selected = 0;
+		            for(CheckBox box : checkboxes)
+		                if(box.isSelected()) selected++;
+		            ((WritableBooleanValue) o).set(selected <= maxSel);
+		        }
+		    });
+		};
+		/* ************************************************************************************************* */
+		// the odds are looked up again whenever the player changes the selection (repeated selections are cached by DrawOdds)
+		for(CheckBox checkbox : checkboxes)
+			checkbox.selectedProperty().addListener((o, oldV, newV) -> {
+				if(!seedingSelection) updateDrawOdds();
+			});
+		for(int i = 0; i < radioButtons.length; i++) {
+			radioButtons[i] = new RadioButton(String.format("%d", i + 1));
+			radioButtons[i].setToggleGroup(betAmountToggle);
+		}
+		
+		layoutHorizontalButtons = new HBox(10);
+		layoutHorizontalButtons.getChildren().addAll(buttons.get("openButton"), buttons.get("nextRoundButton"));
+		layoutHorizontalButtons.getChildren().addAll(checkboxes);
+		layoutHorizontalButtons.getChildren().addAll(buttons.get("refreshCardsButton"), buttons.get("checkButton"), buttons.get("betButton"));
+		layoutHorizontalButtons.getChildren().addAll(radioButtons);
+		layoutHorizontalButtons.getChildren().addAll(buttons.get("submitBetButton"));
+		showWhen(buttons.get("openButton"), controls.isEqualTo(OPEN_CONTROLS));
+		showWhen(buttons.get("nextRoundButton"), controls.isEqualTo(OPEN_CONTROLS).or(controls.isEqualTo(NEXT_ROUND_CONTROLS)));
+		for(CheckBox checkbox : checkboxes)
+			showWhen(checkbox, controls.isEqualTo(REFRESH_CONTROLS));
+		showWhen(buttons.get("refreshCardsButton"), controls.isEqualTo(REFRESH_CONTROLS));
+		showWhen(labels[6], controls.isEqualTo(REFRESH_CONTROLS));
+		showWhen(buttons.get("checkButton"), controls.isEqualTo(CHECK_CONTROLS).or(controls.isEqualTo(CHECK_OR_BET_CONTROLS)));
+		showWhen(buttons.get("betButton"), controls.isEqualTo(CHECK_OR_BET_CONTROLS));
+		for(int i = 0; i < radioButtons.length; i++)
+			showWhen(radioButtons[i], controls.isEqualTo(BET_CONTROLS).and(maxBetAmount.greaterThan(i)));
+		showWhen(buttons.get("submitBetButton"), controls.isEqualTo(BET_CONTROLS));
+		buttons.get("nextRoundButton").textProperty().bind(Bindings.when(controls.isEqualTo(OPEN_CONTROLS)).then("No").otherwise("Next Round"));
+		buttons.get("quitGameButton").textProperty().bind(Bindings.when(gameOver).then("Play Again").otherwise("Restart Game"));
+		
+		layoutMainPage = new VBox(20);
+		layoutMainPage.setStyle("-fx-background-color: #749c70;");
+		layoutMainPage.setPadding(new Insets(20, 20, 20, 20));
+		layoutMainPage.getChildren().addAll(labels[0], separators[0], labels[1], labels[2], separators[1], labels[3], labels[5], labels[4], layoutHorizontalButtons, labels[6], separators[2], buttons.get("quitGameButton"));
+		sceneMainPage = new Scene(layoutMainPage, 300, 600);
 	}
 	
 	/**
-	 * EVALUATE HANDS
+	 * SHOW WHEN
 	 * 
-	 * Calls the checkHand() method from player objects.
-	 * Saves both scores to an array.
+	 * Shows a node (and leaves room for it in the layout) only while the condition is true.
+	 * 
+	 * @param node
+	 * @param condition
+	 */
+	private static void showWhen(Node node, BooleanBinding condition) {
+		node.visibleProperty().bind(condition);
+		node.managedProperty().bind(condition);
+	}
+	
+	/**
+	 * SET UP GAME
+	 * 
+	 * Creates a new table (which deals a new game).
+	 * Shows the main page.
+	 * Checks if players can open.
 	 */
-	private void evaluateHands() {
-		scores[0] = computer.checkHand();
-		scores[1] = you.checkHand();
+	private void setUpGame() {
+		table = new Table();
+		checkOpen();
+		updateMainPage();
+		window.setScene(sceneMainPage);
 	}
 	
 	/**
 	 * CHECK OPEN
 	 * 
-	 * Checks if the players have the minimum hand value to open the game.
+	 * Shows whether the players have the minimum hand value to open the game.
 	 */
 	private void checkOpen() {
-		layoutHorizontalButtons.getChildren().clear();
-		buttons.get("nextRoundButton").setText("No");
-		if(scores[0] >= MIN_OPEN) {
-			actionLabelText = "Computer can open.\n\nDo you want to play?";
-			layoutHorizontalButtons.getChildren().addAll(buttons.get("openButton"), buttons.get("nextRoundButton"));
+		if(table.getOpener() == Table.COMPUTER) {
+			action.set("Computer can open.\n\nDo you want to play?");
+			controls.set(OPEN_CONTROLS);
 		}
 		else
-			if(scores[1] >= MIN_OPEN) {
-				actionLabelText = "Computer cannot open.\nYou can open.\n\nDo you want to play?";
-				layoutHorizontalButtons.getChildren().addAll(buttons.get("openButton"), buttons.get("nextRoundButton"));
+			if(table.getOpener() == Table.YOU) {
+				action.set("Computer cannot open.\nYou can open.\n\nDo you want to play?");
+				controls.set(OPEN_CONTROLS);
 			}
 			else {
-				actionLabelText = "Computer cannot open.\nYou cannot open.";
-				buttons.get("nextRoundButton").setText("Next Round");
-				layoutHorizontalButtons.getChildren().addAll(buttons.get("nextRoundButton"));
+				action.set("Computer cannot open.\nYou cannot open.");
+				controls.set(NEXT_ROUND_CONTROLS);
 			}
 	}
 	
 	/**
 	 * NEXT ROUND
 	 * 
-	 * Creates a new deck and deals new hands.
-	 * Evaluates both hands and checks if players can open.
+	 * Deals new hands at the table.
+	 * Checks if players can open.
 	 */
 	private void nextRound() {
-		deck = new Deck();
-		computer.generateHand();
-		you.generateHand();
-		round++;
-		evaluateHands();
+		table.nextRound();
 		checkOpen();
 		updateMainPage();
 	}
@@ -235,36 +317,46 @@ public class Main extends Application {
 	 * 
 	 * Adds 1 coin from both players to the pot.
 	 * Asks the player to select cards to refresh.
+	 * Pre-selects the cards the DrawOptimizer suggests refreshing.
 	 * Ensures maximum allowed cards to refresh is not exceeded.
+	 * The odds are only looked up once the whole selection is in place, not for every checkbox that changes.
 	 */
 	private void openGame() {
-		layoutHorizontalButtons.getChildren().clear();
-		computer.setCoins(-1);
-		you.setCoins(-1);
-		pot += 2;
-		actionLabelText = "Please Select Cards To Refresh\n(4 cards max):";
-		/* 
-		 * Following code taken from stack overflow:
-		 * https://stackoverflow.com/questions/39045377/how-to-restrict-amount-of-selected-checkboxes-javafx 
-		 */
-		int maxSel = ALLOWED_REFRESHABLE_CARDS;
-		for (int i = 0 ; i < checkboxes.length; i++) {
-			checkboxes[i] = new CheckBox();
-			if(!you.checkIfValuableCard(i)) checkboxes[i].setSelected(true);
-			checkboxes[i].selectedProperty().addListener((o, oldV, newV) -> {
-		        if(newV) {
-		            int selected = 0;
-		            for(CheckBox box : checkboxes)
-		                if(box.isSelected()) selected++;
-		            ((WritableBooleanValue) o).set(selected <= maxSel);
-		        }
-		    });
-		};
-		/* ************************************************************************************************* */
-		layoutHorizontalButtons.getChildren().addAll(checkboxes[0], checkboxes[1], checkboxes[2], checkboxes[3], checkboxes[4], buttons.get("refreshCardsButton"));
+		table.open();
+		action.set("Please Select Cards To Refresh\n(4 cards max):");
+		int suggestedRefresh = table.getSuggestedRefresh(Table.YOU);
+		seedingSelection = true;
+		for(CheckBox checkbox : checkboxes)
+			checkbox.setSelected(false);
+		for(int i = 0; i < checkboxes.length; i++)
+			checkboxes[i].setSelected((suggestedRefresh & (1 << i)) != 0);
+		seedingSelection = false;
+		updateDrawOdds();
+		controls.set(REFRESH_CONTROLS);
 		updateMainPage();
 	}
 	
+	/**
+	 * UPDATE DRAW ODDS
+	 * 
+	 * Shows the exact chance of finishing with each hand (best first, two to a line) if the selected cards are refreshed.
+	 * Only used while cards can be refreshed.
+	 */
+	private void updateDrawOdds() {
+		int cardsToRefresh = 0;
+		for(int i = 0; i < checkboxes.length; i++)
+			if(checkboxes[i].isSelected()) cardsToRefresh |= 1 << i;
+		if(table.getStage() != Table.OPENED || Integer.bitCount(cardsToRefresh) > Table.ALLOWED_REFRESHABLE_CARDS) return;
+		double[] odds = table.getDrawOdds(Table.YOU, cardsToRefresh);
+		oddsText.setLength(0);
+		oddsText.append("Chance after refreshing:");
+		int shown = 0;
+		for(int category = odds.length - 1; category >= 0; category--)
+			if(odds[category] > 0)
+				oddsText.append(shown++ % 2 == 0 ? "\n" : "\t").append(Table.OUTCOMES[category]).append(' ').append(String.format("%.2f%%", odds[category] * 100));
+		drawOdds.set(oddsText.toString());
+	}
+	
 	/**
 	 * REFRESH CARDS
 	 * 
@@ -272,23 +364,12 @@ public class Main extends Application {
 	 * If you are down to 0 coins it only lets you check as a next move.
 	 */
 	private void refreshCards() {
-		int computersRefreshedCards = 0;
-		layoutHorizontalButtons.getChildren().clear();
-		for (int i = 0 ; i < checkboxes.length; i++) {
-			if(!computer.checkIfValuableCard(i)) {
-				computer.replaceCard(i);
-				computersRefreshedCards++;
-			}
-			if(checkboxes[i].isSelected()) you.replaceCard(i);
-		}
-		you.sortHand();
-		computer.sortHand();
-		evaluateHands();
-		if(you.getCoins() <= 0 || computer.getCoins() <= 0)
-			layoutHorizontalButtons.getChildren().addAll(buttons.get("checkButton"));
-		else
-			layoutHorizontalButtons.getChildren().addAll(buttons.get("checkButton"), buttons.get("betButton"));
-		actionLabelText = String.format("(Computer has refreshed %d cards)\n\nWhat is your next move?", computersRefreshedCards);
+		int yourCardsToRefresh = 0;
+		for (int i = 0 ; i < checkboxes.length; i++)
+			if(checkboxes[i].isSelected()) yourCardsToRefresh |= 1 << i;
+		int computersRefreshedCards = table.refresh(yourCardsToRefresh);
+		controls.set(table.canBet() ? CHECK_OR_BET_CONTROLS : CHECK_CONTROLS);
+		action.set(String.format("(Computer has refreshed %d cards)\n\nWhat is your next move?", computersRefreshedCards));
 		updateMainPage();
 	}
 	
@@ -299,36 +380,36 @@ public class Main extends Application {
 	 * Checks if either player has no coins left.
 	 */
 	private void check() {
-		layoutHorizontalButtons.getChildren().clear();
-		actionLabelText = String.format("Computer's Hand:\n\n%s \t(%s)\n\n", computer, OUTCOMES[scores[0] / 100]);
-		if(computer.checkHand() > you.checkHand()) {
-			actionLabelText += "Computer Wins :(";
-			computer.setCoins(pot);
-			pot = 0;
-		}
-		else if(computer.checkHand() < you.checkHand()){
-			actionLabelText += "You Win!";
-			you.setCoins(pot);
-			pot = 0;
-		}
-		else {
-			actionLabelText += "It's a draw!";
-			computer.setCoins(pot / 2);
-			you.setCoins(pot / 2);
-			pot = 0;
-		}
-		if(computer.getCoins() <= 0 || you.getCoins() <= 0) {
-			if(computer.getCoins() <= 0)
-				actionLabelText += "\n\nGame Over, The Computer Is Out Of Money!\nCongratulations, You've Won The Game!";
-			else if(you.getCoins() <= 0)
-				actionLabelText += "\n\nGame Over, You Are Out Of Money!\nUnfortunately, You've Lost The Game";
-			actionLabelText += "\n\nWould You Like To Play Again?";
-			buttons.get("quitGameButton").setText("Play Again");
-			updateMainPage();
-			return;
+		table.check();
+		showResult();
+	}
+	
+	/**
+	 * SHOW RESULT
+	 * 
+	 * Shows the computers hand and the winner of the showdown.
+	 * Checks if either player has no coins left.
+	 */
+	private void showResult() {
+		actionText.setLength(0);
+		table.getComputer().appendTo(actionText.append("Computer's Hand:\n\n")).append(" \t(")
+				.append(Table.OUTCOMES[HandEvaluator.category(table.getScore(Table.COMPUTER))]).append(")\n\n");
+		if(table.getResult() == Table.COMPUTER_WINS)
+			actionText.append("Computer Wins :(");
+		else if(table.getResult() == Table.YOU_WIN)
+			actionText.append("You Win!");
+		else
+			actionText.append("It's a draw!");
+		if(table.isGameOver()) {
+			if(table.getComputer().getCoins() <= 0)
+				actionText.append("\n\nGame Over, The Computer Is Out Of Money!\nCongratulations, You've Won The Game!");
+			else if(table.getYou().getCoins() <= 0)
+				actionText.append("\n\nGame Over, You Are Out Of Money!\nUnfortunately, You've Lost The Game");
+			actionText.append("\n\nWould You Like To Play Again?");
+			controls.set(NO_CONTROLS);
 		}
-		buttons.get("nextRoundButton").setText("Next Round");
-		layoutHorizontalButtons.getChildren().addAll(buttons.get("nextRoundButton"));
+		else controls.set(NEXT_ROUND_CONTROLS);
+		action.set(actionText.toString());
 		updateMainPage();
 	}
 	
@@ -339,20 +420,10 @@ public class Main extends Application {
 	 * Will only display available values based on both players balance.
 	 */
 	private void bet() {
-		layoutHorizontalButtons.getChildren().clear();
-		ToggleGroup betAmountToggle = new ToggleGroup();
-		for(int i = 0; i < radioButtons.length; i++) {
-			radioButtons[i] = new RadioButton(String.format("%d", i + 1));
-			radioButtons[i].setToggleGroup(betAmountToggle);
-		}
-        if(you.getCoins() >= 3 && computer.getCoins() >= 3)
-        	layoutHorizontalButtons.getChildren().addAll(radioButtons[0], radioButtons[1], radioButtons[2], buttons.get("submitBetButton"));
-        else if(you.getCoins() >= 2 && computer.getCoins() >= 2)
-        	layoutHorizontalButtons.getChildren().addAll(radioButtons[0], radioButtons[1], buttons.get("submitBetButton"));
-        else if(you.getCoins() >= 1 && computer.getCoins() >= 1)
-        	layoutHorizontalButtons.getChildren().addAll(radioButtons[0], buttons.get("submitBetButton"));
-        else return;
-		actionLabelText = "How much would you like to bet?";
+		betAmountToggle.selectToggle(null);
+		maxBetAmount.set(table.bet());
+		controls.set(BET_CONTROLS);
+		action.set("How much would you like to bet?");
 		updateMainPage();
 	}
 	
@@ -363,26 +434,13 @@ public class Main extends Application {
 	 */
 	private void submitBet() {
 		int betAmount = 0;
-		if(radioButtons[0].isSelected()) betAmount = 1;
-		else if(radioButtons[1].isSelected()) betAmount = 2;
-		else if(radioButtons[2].isSelected()) betAmount = 3;
-		else {
-			check();
-			return;
-		}
-		if(scores[0] >= MIN_COMPUTER_PROCEED) {
-			computer.setCoins(-betAmount);
-			you.setCoins(-betAmount);
-			pot += betAmount * 2;
-			check();
-		}
+		for(int i = 0; i < radioButtons.length; i++)
+			if(radioButtons[i].isSelected()) betAmount = i + 1;
+		if(table.submitBet(betAmount) != Table.COMPUTER_FOLDS)
+			showResult();
 		else {
-			layoutHorizontalButtons.getChildren().clear();
-			actionLabelText = "Computer Folds, You Win The Pot!";
-			you.setCoins(pot);
-			pot = 0;
-			buttons.get("nextRoundButton").setText("Next Round");
-			layoutHorizontalButtons.getChildren().addAll(buttons.get("nextRoundButton"));
+			action.set("Computer Folds, You Win The Pot!");
+			controls.set(NEXT_ROUND_CONTROLS);
 			updateMainPage();
 		}
 	}
@@ -390,20 +448,19 @@ public class Main extends Application {
 	/**
 	 * UPDATE MAIN PAGE
 	 * 
-	 * Sets up the main page with various labels and buttons required.
+	 * Copies the state of the table into the properties the main page is bound to.
+	 * A property only tells its nodes to update if its value has changed.
+	 * Your hand is written into a reused builder and only turned into a new String when the text is different.
 	 */
 	private void updateMainPage() {
-		layoutMainPage = new VBox(20);
-		layoutMainPage.setStyle("-fx-background-color: #749c70;");
-		labels[0].setText(String.format("Round: %d", round));
-		labels[1].setText(String.format("Coins\nComputer:\t%d\nYou:\t\t\t%d", computer.getCoins(), you.getCoins()));
-		labels[2].setText(String.format("Pot\n%d", pot));
-		labels[3].setText(String.format("Your Hand:\n\n%s \t(%s)", you, OUTCOMES[scores[1] / 100]));
-		labels[4].setText(actionLabelText);
-		layoutMainPage.setPadding(new Insets(20, 20, 20, 20));
-		layoutMainPage.getChildren().addAll(labels[0], separators[0], labels[1], labels[2], separators[1], labels[3], labels[4], layoutHorizontalButtons, separators[2], buttons.get("quitGameButton"));
-		sceneMainPage = new Scene(layoutMainPage, 300, 600);
-		window.setScene(sceneMainPage);
+		round.set(table.getRound());
+		computersCoins.set(table.getComputer().getCoins());
+		yourCoins.set(table.getYou().getCoins());
+		pot.set(table.getPot());
+		handText.setLength(0);
+		table.getYou().appendTo(handText.append("Your Hand:\n\n")).append(" \t(").append(Table.OUTCOMES[HandEvaluator.category(table.getScore(Table.YOU))]).append(')');
+		if(!yourHand.get().contentEquals(handText)) yourHand.set(handText.toString());
+		gameOver.set(table.isGameOver());
 	}
 	
 }
\ No newline at end of file
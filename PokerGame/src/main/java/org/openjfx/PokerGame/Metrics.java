@@ -0,0 +1,270 @@
+/**
+ * Metrics
+ * 
+ * A class used to count what the game engine does, so simulations and servers can be watched while they run.
+ * Player and Table add to the default instance (getDefault()):
+ * 1. Hands evaluated by Player.checkHand() for each of the OUTCOMES
+ * 2. How long an evaluation takes (1 in EVALUATION_SAMPLE_RATE is timed, timing every one would cost more than the evaluation)
+ * 3. How long a round takes from the deal to the result, and how many cards were drawn from the deck in the round
+ * 4. How often the computer opens, and how often it calls or folds when you bet
+ * 
+ * Counters are LongAdders and the histograms are striped, so threads do not wait on each other to count.
+ * The values can be read with the getters or as text from snapshot(), and startDumping() appends a snapshot
+ * to a file every so often (set the pokergame.metrics property to a file to have Simulator and GameServer do this).
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+
+public class Metrics {
+	
+	/** Class constants */
+	final public static String FILE_PROPERTY = "pokergame.metrics";
+	final public static long DEFAULT_DUMP_SECONDS = 10;
+	final public static int EVALUATION_SAMPLE_RATE = 64; // a power of two
+	final private static Metrics DEFAULT = new Metrics();
+	
+	/** Class variables */
+	private final LongAdder[] evaluations = new LongAdder[Table.OUTCOMES.length];
+	private final LatencyHistogram evaluationLatency = new LatencyHistogram(), roundLatency = new LatencyHistogram();
+	private final LongAdder[] drawsPerRound = new LongAdder[Card.DECK_SIZE + 1];
+	private final LongAdder rounds = new LongAdder(), computerOpens = new LongAdder(), youOpen = new LongAdder();
+	private final LongAdder computerCalls = new LongAdder(), computerFolds = new LongAdder();
+	private ScheduledExecutorService dumper;
+	private Thread dumpOnExit;
+	
+	/**
+	 * CONSTRUCTOR
+	 */
+	public Metrics() {
+		for(int i = 0; i < evaluations.length; i++)
+			evaluations[i] = new LongAdder();
+		for(int i = 0; i < drawsPerRound.length; i++)
+			drawsPerRound[i] = new LongAdder();
+	}
+	
+	/**
+	 * GET DEFAULT
+	 * 
+	 * @return the instance Player and Table count into
+	 */
+	public static Metrics getDefault() {
+		return DEFAULT;
+	}
+	
+	/**
+	 * SHOULD TIME EVALUATION
+	 * 
+	 * @return true for about 1 in EVALUATION_SAMPLE_RATE calls
+	 */
+	public static boolean shouldTimeEvaluation() {
+		return (ThreadLocalRandom.current().nextInt() & (EVALUATION_SAMPLE_RATE - 1)) == 0;
+	}
+	
+	/**
+	 * EVALUATED
+	 * 
+	 * @param category
+	 */
+	public void evaluated(int category) {
+		evaluations[category].increment();
+	}
+	
+	/**
+	 * EVALUATION TIMED
+	 * 
+	 * @param nanos
+	 */
+	public void evaluationTimed(long nanos) {
+		evaluationLatency.record(nanos);
+	}
+	
+	/**
+	 * ROUND PLAYED
+	 * 
+	 * @param nanos from the deal to the end of the round
+	 * @param draws cards drawn from the deck in the round
+	 */
+	public void roundPlayed(long nanos, int draws) {
+		rounds.increment();
+		roundLatency.record(nanos);
+		drawsPerRound[Math.min(Math.max(draws, 0), Card.DECK_SIZE)].increment();
+	}
+	
+	/**
+	 * OPENED
+	 * 
+	 * @param opener
+	 */
+	public void opened(int opener) {
+		(opener == Table.YOU ? youOpen : computerOpens).increment();
+	}
+	
+	/**
+	 * BET ANSWERED
+	 * 
+	 * @param called true if the computer called, false if it folded
+	 */
+	public void betAnswered(boolean called) {
+		(called ? computerCalls : computerFolds).increment();
+	}
+	
+	/**
+	 * START DUMPING (OVERLOADED)
+	 * 
+	 * Starts dumping to the file in the FILE_PROPERTY system property every DEFAULT_DUMP_SECONDS, if it is set.
+	 * 
+	 * @return true if dumping was started
+	 */
+	public boolean startDumping() {
+		String file = System.getProperty(FILE_PROPERTY);
+		if(file == null) return false;
+		startDumping(Paths.get(file), DEFAULT_DUMP_SECONDS, TimeUnit.SECONDS);
+		return true;
+	}
+	
+	/**
+	 * START DUMPING (OVERLOADED)
+	 * 
+	 * Appends a snapshot to the file every period on a daemon thread, and once more when the JVM exits.
+	 * Calling it again replaces the earlier file and period. A failed dump is logged and the next one still runs.
+	 * 
+	 * @param path
+	 * @param period
+	 * @param unit
+	 */
+	public synchronized void startDumping(Path path, long period, TimeUnit unit) {
+		if(dumper != null) dumper.shutdownNow();
+		dumper = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "metrics-dumper");
+			thread.setDaemon(true);
+			return thread;
+		});
+		dumper.scheduleAtFixedRate(() -> dumpOrLog(path), period, period, unit);
+		if(dumpOnExit != null) Runtime.getRuntime().removeShutdownHook(dumpOnExit);
+		dumpOnExit = new Thread(() -> dumpOrLog(path), "metrics-dump-on-exit");
+		Runtime.getRuntime().addShutdownHook(dumpOnExit);
+	}
+	
+	/**
+	 * DUMP OR LOG
+	 * 
+	 * Dumps from the scheduled task and the shutdown hook, an exception thrown there would cancel every later dump.
+	 * 
+	 * @param path
+	 */
+	private void dumpOrLog(Path path) {
+		try {
+			dump(path);
+		}
+		catch(RuntimeException e) {
+			System.err.println("Could not dump metrics to " + path + ": " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * DUMP
+	 * 
+	 * Appends a snapshot to the file.
+	 * 
+	 * @param path
+	 */
+	public void dump(Path path) {
+		try {
+			Files.write(path, snapshot().getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * SNAPSHOT
+	 * 
+	 * @return every metric as "name value" lines, after a line with the time
+	 */
+	public String snapshot() {
+		StringBuilder snapshot = new StringBuilder("# ").append(Instant.now()).append('\n');
+		long total = 0;
+		for(int i = 0; i < evaluations.length; i++) {
+			snapshot.append("evaluations.").append(Table.OUTCOMES[i].replace(' ', '_')).append(' ').append(evaluations[i].sum()).append('\n');
+			total += evaluations[i].sum();
+		}
+		snapshot.append("evaluations ").append(total).append('\n');
+		snapshot.append("evaluation.latency ").append(evaluationLatency).append('\n');
+		snapshot.append("rounds ").append(rounds.sum()).append('\n');
+		snapshot.append("round.latency ").append(roundLatency).append('\n');
+		snapshot.append(String.format("round.draws mean=%.3f", getMeanDrawsPerRound()));
+		for(int i = 0; i < drawsPerRound.length; i++)
+			if(drawsPerRound[i].sum() > 0) snapshot.append(' ').append(i).append('=').append(drawsPerRound[i].sum());
+		snapshot.append('\n');
+		snapshot.append(String.format("computer.open.rate %.4f%n", getComputerOpenRate()));
+		snapshot.append(String.format("you.open.rate %.4f%n", rounds.sum() == 0 ? 0 : youOpen.sum() / (double) rounds.sum()));
+		snapshot.append(String.format("computer.call.rate %.4f%n", getComputerCallRate()));
+		snapshot.append(String.format("computer.fold.rate %.4f%n", getComputerFoldRate()));
+		return snapshot.toString();
+	}
+	
+	/**
+	 * GETTERS
+	 */
+	public long getEvaluations(int category) {
+		return evaluations[category].sum();
+	}
+	
+	public LatencyHistogram getEvaluationLatency() {
+		return evaluationLatency;
+	}
+	
+	public LatencyHistogram getRoundLatency() {
+		return roundLatency;
+	}
+	
+	public long getRounds() {
+		return rounds.sum();
+	}
+	
+	public long getRoundsWithDraws(int draws) {
+		return drawsPerRound[draws].sum();
+	}
+	
+	public double getMeanDrawsPerRound() {
+		long count = 0, draws = 0;
+		for(int i = 0; i < drawsPerRound.length; i++) {
+			count += drawsPerRound[i].sum();
+			draws += i * drawsPerRound[i].sum();
+		}
+		return count == 0 ? 0 : (double) draws / count;
+	}
+	
+	public double getComputerOpenRate() { // of all rounds dealt
+		return rounds.sum() == 0 ? 0 : computerOpens.sum() / (double) rounds.sum();
+	}
+	
+	public double getComputerCallRate() { // of all bets
+		long bets = computerCalls.sum() + computerFolds.sum();
+		return bets == 0 ? 0 : computerCalls.sum() / (double) bets;
+	}
+	
+	public double getComputerFoldRate() { // of all bets
+		long bets = computerCalls.sum() + computerFolds.sum();
+		return bets == 0 ? 0 : computerFolds.sum() / (double) bets;
+	}
+
+}
@@ -5,37 +5,54 @@
  * Contains a players hand and coins.
  * Cards objects are drawn from the Deck class and saved to a hand.
  * 
+ * The hand is a bitboard: one long with bit (value * 4 + suit) set for every card held (see Card.getBitboard()),
+ * so it is always sorted (reading the set bits from the bottom gives the cards lowest first) and drawing or
+ * discarding a card is a single bit operation. The OR of the value bits is kept up to date next to it, and
+ * the score is saved and only worked out again after the hand changes.
+ * A Texas Hold'em player (see HoldemTable) holds only their hole cards and is ranked together with the board.
+ * 
  * @author endamccarthy
  * Last Modified: 12/04/2020
  */
 
 package org.openjfx.PokerGame;
-import java.util.Arrays;
 
 
 public class Player {
 
 	/** Class constants and variables */
 	final private static int MIN_VALUABLE_KICKER_CARD = 8; // 8 is the index representing a ten
-	private Card[] hand;
-	private boolean[] valuableCards;
-	private int highestCard, ignore, tempHighestCard, coins;
+	final private static long KICKERS = -1L << (MIN_VALUABLE_KICKER_CARD << 2);
+	private long cards; // bitboard of the hand
+	private long valuableCards; // bitboard of the cards in the hand worth keeping
+	private int coins;
+	private int valueBits;
+	private int score;
+	private boolean changed = true; // true if the score and valuable cards need working out again
 	
 	/**
 	 * CONSTRUCTOR
 	 * 
-	 * Instantiates hand as a new array of Cards.
-	 * Instantiates valuableHands as a new array of false booleans.
 	 * Sets up players coin balance.
-	 * Generates a new hand for player.
+	 * Generates a new hand for player from the deck passed in.
+	 * 
+	 * @param deck
+	 */
+	public Player(Deck deck) {
+		setCoins(Table.STARTING_COINS);
+		generateHand(deck);
+	}
+	
+	/**
+	 * RESET
+	 * 
+	 * Puts the players coin balance back to STARTING_COINS and deals a new hand, so a player can be used for another game.
+	 * 
+	 * @param deck
 	 */
-	public Player() {
-		this.hand = new Card[Main.CARDS_PER_PLAYER];
-		this.valuableCards = new boolean[Main.CARDS_PER_PLAYER];
-		for(int i = 0; i < valuableCards.length; i++)
-			valuableCards[i] = false;
-		setCoins(Main.STARTING_COINS);
-		generateHand();
+	public void reset(Deck deck) {
+		coins = Table.STARTING_COINS;
+		generateHand(deck);
 	}
 	
 	/**
@@ -59,12 +76,35 @@ public class Player {
 	}
 	
 	/**
-	 * SORT HAND
+	 * GET CARD
 	 * 
-	 * Sort a players hand from least valuable card to most.
+	 * @param position
+	 * @return the card at a position in the sorted hand (0 is the lowest)
 	 */
-	public void sortHand() {
-		Arrays.sort(hand);
+	public Card getCard(int position) {
+		return Card.ofBitboard(bitAt(position));
+	}
+	
+	/**
+	 * GET CARDS
+	 * 
+	 * @return the hand as a bitboard
+	 */
+	public long getCards() {
+		return cards;
+	}
+	
+	/**
+	 * BIT AT
+	 * 
+	 * @param position
+	 * @return bitboard holding only the card at a position in the sorted hand
+	 */
+	private long bitAt(int position) {
+		long remaining = cards;
+		for(int i = 0; i < position; i++)
+			remaining &= remaining - 1;
+		return Long.lowestOneBit(remaining);
 	}
 	
 	/**
@@ -77,7 +117,7 @@ public class Player {
 	 * @return boolean
 	 */
 	public boolean checkIfValuableCard(int cardToCheck) {
-		return valuableCards[cardToCheck];
+		return (valuableCards & bitAt(cardToCheck)) != 0;
 	}
 	
 	/**
@@ -86,286 +126,224 @@ public class Player {
 	 * Used to refresh players cards.
 	 * 
 	 * @param cardToReplace
+	 * @param deck
 	 */
-	public void replaceCard(int cardToReplace) {
-		if(Main.deck.deckSize() >= 1) hand[cardToReplace] = Main.deck.drawCard();
+	public void replaceCard(int cardToReplace, Deck deck) {
+		replaceCards(1 << cardToReplace, deck);
 	}
 	
 	/**
-	 * GENERATE HAND
+	 * REPLACE CARDS
 	 * 
-	 * Draws cards from the deck created in Main and saves them to the hand array.
-	 * Sorts the hand array by values of cards (the compareTo() method of Card is used for this).
+	 * Used to refresh several cards at once. The positions are those of the sorted hand before any card is replaced,
+	 * as new cards take their place in value order straight away.
+	 * 
+	 * @param cardsToReplace bit i selects card i of the hand
+	 * @param deck
 	 */
-	public void generateHand() {
-		for(int i = 0; i < Main.CARDS_PER_PLAYER; i++)
-			hand[i] = Main.deck.drawCard();
-		sortHand();
+	public void replaceCards(int cardsToReplace, Deck deck) {
+		long replaced = 0, remaining = cards;
+		for(int i = 0; remaining != 0; i++, remaining &= remaining - 1)
+			if((cardsToReplace & (1 << i)) != 0) replaced |= Long.lowestOneBit(remaining);
+		for(; replaced != 0 && deck.deckSize() >= 1; replaced &= replaced - 1) {
+			remove(Long.lowestOneBit(replaced));
+			add(deck.drawCard());
+		}
 	}
 	
 	/**
-	 * CHECK HAND
+	 * DISCARD CARDS
 	 * 
-	 * Checks hand for each outcome starting with the strongest.
-	 * If any of the checks are true, an integer value is returned.
-	 * The value returned represents the strength of the hand.
-	 * If no checks are true the value of the highest card is marked as valuable and returned.
+	 * Takes cards out of the hand without drawing new ones, so the table can make up the deck
+	 * before drawCards() fills the hand again (see Table).
 	 * 
-	 * @return integer value representing the strength of the hand
+	 * @param cardsToDiscard bit i selects card i of the hand
+	 * @return bitboard of the cards taken out
 	 */
-	public int checkHand() {
-		for(int i = 0; i < valuableCards.length; i++)
-			valuableCards[i] = false;
-		ignore = -1; // set ignore variable to an invalid number
-		highestCard = hand[hand.length - 1].getValue();
-		if (checkForRoyalFlush(hand)) return 900 + highestCard;
-		else if (checkForStraightFlush(hand)) return 800 + highestCard;
-		else if (checkForFourOfAKind(hand)) return 700 + highestCard;
-		else if (checkForFullHouse(hand)) return 600 + highestCard;
-		else if (checkForFlush(hand)) return 500 + highestCard;
-		else if (checkForStraight(hand)) return 400 + highestCard;
-		else if (checkForTriple(hand)) return 300 + highestCard;
-		else if (checkForTwoPair(hand)) return 200 + highestCard;
-		else if (checkForPair(hand)) {
-			determineValuableKickers();
-			return 100 + highestCard;
-		}
-		else {
-			valuableCards[valuableCards.length - 1] = true;
-			determineValuableKickers();
-			return highestCard;
-		}
+	public long discardCards(int cardsToDiscard) {
+		long discarded = 0, remaining = cards;
+		for(int i = 0; remaining != 0; i++, remaining &= remaining - 1)
+			if((cardsToDiscard & (1 << i)) != 0) discarded |= Long.lowestOneBit(remaining);
+		for(long bits = discarded; bits != 0; bits &= bits - 1)
+			remove(Long.lowestOneBit(bits));
+		return discarded;
 	}
 	
 	/**
-	 * CHECK FOR ROYAL FLUSH
+	 * DRAW CARDS
 	 * 
-	 * Returns true if the hand is a flush, a straight and if the highest card is an Ace.
-	 * (e.g. {♠10, ♠J, ♠Q, ♠K, ♠A})
-	 * All cards will already be marked as valuable from internal methods.
+	 * Draws cards from the deck until the hand is full (or the deck is empty).
 	 * 
-	 * @param hand
-	 * @return boolean
+	 * @param deck
 	 */
-	private boolean checkForRoyalFlush(Card[] hand) {
-		if (checkForFlush(hand) && checkForStraight(hand) && highestCard == Card.VALUES.length - 1) return true;
-		return false;
+	public void drawCards(Deck deck) {
+		while(Long.bitCount(cards) < Table.CARDS_PER_PLAYER && deck.deckSize() >= 1)
+			add(deck.drawCard());
 	}
 	
 	/**
-	 * CHECK FOR STRAIGHT FLUSH
+	 * SET HAND
 	 * 
-	 * Returns true if the hand is a flush and a straight (e.g. {♠5, ♠6, ♠7, ♠8, ♠9}).
-	 * All cards will already be marked as valuable from internal methods.
+	 * Replaces the hand with the cards passed in (e.g. to rank a known hand).
 	 * 
-	 * @param hand
-	 * @return boolean
+	 * @param cards
 	 */
-	private boolean checkForStraightFlush(Card[] hand) {
-		if (checkForFlush(hand) && checkForStraight(hand)) return true;
-		return false;
+	public void setHand(Card... cards) {
+		if(cards.length != Table.CARDS_PER_PLAYER) throw new IllegalArgumentException("A hand needs " + Table.CARDS_PER_PLAYER + " cards");
+		clearHand();
+		for(Card card : cards)
+			add(card);
+		if(Long.bitCount(this.cards) != Table.CARDS_PER_PLAYER) throw new IllegalArgumentException("A hand cannot hold the same card twice");
 	}
 	
 	/**
-	 * CHECK FOR FOUR OF A KIND
+	 * GENERATE HAND (OVERLOADED)
 	 * 
-	 * Returns true if the hand contains 4 equal values (e.g. {♠10, ♡10, ♣10, ♢10, ♠K}).
-	 * If true, highestCard will be saved as the value of the 4 cards.
-	 * Four of a kind cards are marked as valuable.
+	 * Draws cards from the deck passed in and adds them to the hand.
 	 * 
-	 * @param hand
-	 * @return boolean
+	 * @param deck
 	 */
-	private boolean checkForFourOfAKind(Card[] hand) {
-		for(int i = 0; i < valuableCards.length; i++)
-			valuableCards[i] = false;
-		for(int i = 0; i < hand.length; i++)
-			for(int j = i + 1; j < hand.length; j++)
-				for(int k = j + 1; k < hand.length; k++)
-					for(int l = k + 1; l < hand.length; l++)
-						if ((hand[i].getValue() == hand[j].getValue()) && (hand[j].getValue() == hand[k].getValue()) && (hand[k].getValue() == hand[l].getValue())) {
-							highestCard = hand[i].getValue();
-							valuableCards[i] = true;
-							valuableCards[j] = true;
-							valuableCards[k] = true;
-							valuableCards[l] = true;
-							determineValuableKickers();
-							return true;
-						}
-		return false;
+	public void generateHand(Deck deck) {
+		generateHand(deck, Table.CARDS_PER_PLAYER);
 	}
 	
 	/**
-	 * CHECK FOR FULL HOUSE
+	 * GENERATE HAND (OVERLOADED)
 	 * 
-	 * Returns true if the hand contains a triple and a pair (e.g. {♠10, ♡10, ♣10, ♢K, ♠K}).
-	 * If true, the value of the triple cards is saved to highestCard (e.g. 10).
-	 * Because checkForPair might change the value of highestCard, the highestCard found 
-	 * in checkForTriple is saved in temp and saved back to highestCard later.
-	 * All cards are marked as valuable.
+	 * Draws a number of cards for a new hand (e.g. HoldemTable.HOLE_CARDS).
 	 * 
-	 * @param hand
-	 * @return boolean
+	 * @param deck
+	 * @param numberOfCards
 	 */
-	private boolean checkForFullHouse(Card[] hand) {
-		if (checkForTriple(hand)) {
-			tempHighestCard = highestCard;
-			// checkForPair will ignore the triple cards already found
-			if (checkForPair(hand, highestCard)) {
-				highestCard = tempHighestCard;
-				for(int i = 0; i < valuableCards.length; i++)
-					valuableCards[i] = true;
-				return true;
-			}
-		}
-		return false;
+	public void generateHand(Deck deck, int numberOfCards) {
+		clearHand();
+		for(int i = 0; i < numberOfCards; i++)
+			add(deck.drawCard());
 	}
 	
 	/**
-	 * CHECK FOR FLUSH
-	 * 
-	 * Returns true if the hand contains a flush (all the same suit) (e.g. {♠3, ♠6, ♠8, ♠J, ♠A}).
-	 * All cards are marked as valuable.
-	 * 
-	 * @param hand
-	 * @return boolean
+	 * CLEAR HAND
 	 */
-	private boolean checkForFlush(Card[] hand) {
-		for(int i = 1; i < hand.length; i++)
-			if (hand[0].getSuit() != hand[i].getSuit()) return false;
-		highestCard = hand[hand.length - 1].getValue();
-		for(int i = 0; i < valuableCards.length; i++)
-			valuableCards[i] = true;
-		return true;
+	private void clearHand() {
+		cards = 0;
+		valueBits = 0;
+		changed = true;
 	}
 	
 	/**
-	 * CHECK FOR STRAIGHT
+	 * ADD
 	 * 
-	 * Returns true if the hand contains a straight (e.g. {♠5, ♡6, ♢7, ♠8, ♣9}).
-	 * All cards are marked as valuable.
+	 * Adds a card to the hand.
 	 * 
-	 * @param hand
-	 * @return boolean
+	 * @param card
 	 */
-	private boolean checkForStraight(Card[] hand) {
-		for(int i = 0; i < hand.length - 1; i++)
-			if (hand[i].getValue() != (hand[i + 1].getValue() - 1)) return false;
-		highestCard = hand[hand.length - 1].getValue();
-		for(int i = 0; i < valuableCards.length; i++)
-			valuableCards[i] = true;
-		return true;
+	private void add(Card card) {
+		cards |= card.getBitboard();
+		valueBits |= 1 << card.getValue();
+		changed = true;
 	}
 	
 	/**
-	 * CHECK FOR TRIPLE
+	 * REMOVE
 	 * 
-	 * Returns true if the hand contains a triple (e.g. {♠5, ♡6, ♢6, ♠6, ♣9}).
-	 * If true, the value of the triple cards is saved to highestCard (e.g. 6).
-	 * Triple cards are marked as valuable.
+	 * Takes a card out of the hand, the value bit is only cleared when no other card of that value is left.
 	 * 
-	 * @param hand
-	 * @return boolean
+	 * @param bit bitboard holding only the card
 	 */
-	private boolean checkForTriple(Card[] hand) {
-		for(int i = 0; i < hand.length; i++)
-			for(int j = i + 1; j < hand.length; j++)
-				for(int k = j + 1; k < hand.length; k++)
-					if ((hand[i].getValue() == hand[j].getValue()) && (hand[j].getValue() == hand[k].getValue())) {
-						highestCard = hand[i].getValue();
-						valuableCards[i] = true;
-						valuableCards[j] = true;
-						valuableCards[k] = true;
-						determineValuableKickers();
-						return true;
-					}
-		return false;
+	private void remove(long bit) {
+		cards &= ~bit;
+		int value = Long.numberOfTrailingZeros(bit) >>> 2;
+		if((cards & (0xFL << (value << 2))) == 0) valueBits &= ~(1 << value);
+		changed = true;
 	}
 	
 	/**
-	 * CHECK FOR TWO PAIR
+	 * CHECK HAND (OVERLOADED)
 	 * 
-	 * Returns true if the hand contains two pairs (e.g. {♠5, ♡5, ♢6, ♠6, ♣9}).
-	 * If true, the value of the highest pair is saved to highestCard (e.g. 6).
+	 * Ranks the hand from its bitboard and value bits using HandEvaluator.
+	 * The value returned is the full score of the hand (category and every tie breaking value, see HandEvaluator).
+	 * Also marks which cards are valuable based on the category of the hand.
+	 * If the hand has not changed since the last call the saved score is returned straight away.
 	 * 
-	 * @param hand
-	 * @return boolean
+	 * @return integer value representing the strength of the hand
 	 */
-	private boolean checkForTwoPair(Card[] hand) {
-		// as the hand is sorted the second half of the conditional will find the highest pair
-		if (checkForPair(hand) && checkForPair(hand, highestCard)) {
-			determineValuableKickers();
-			return true;
+	public int checkHand() {
+		if(!changed) return score;
+		if(Metrics.shouldTimeEvaluation()) {
+			long start = System.nanoTime();
+			score = HandEvaluator.evaluate(cards, valueBits);
+			Metrics.getDefault().evaluationTimed(System.nanoTime() - start);
 		}
-		return false;
+		else score = HandEvaluator.evaluate(cards, valueBits);
+		int category = HandEvaluator.category(score);
+		Metrics.getDefault().evaluated(category);
+		markValuableCards(category);
+		changed = false;
+		return score;
 	}
 	
 	/**
-	 * CHECK FOR PAIR (OVERLOADED)
+	 * CHECK HAND (OVERLOADED)
 	 * 
-	 * The method takes an additional argument called ignore, this allows it to find a pair in
-	 * checkForFullHouse() that is not already part of the triple and also allows it to 
-	 * find a second pair in checkForTwoPair().
-	 * Calls on overloaded version of itself and returns result.
+	 * Ranks the best five cards out of the hand and the shared board cards using HoldemEvaluator.
+	 * The score is not saved, as the board changes during a round.
 	 * 
-	 * @param hand
-	 * @param ignore
-	 * @return boolean
+	 * @param board bitboard of the board cards
+	 * @return integer value representing the strength of the best five cards
 	 */
-	private boolean checkForPair(Card[] hand, int ignore) {
-		this.ignore = ignore;
-		return checkForPair(hand);
+	public int checkHand(long board) {
+		return HoldemEvaluator.evaluate(cards, board);
 	}
 	
 	/**
-	 * CHECK FOR PAIR (OVERLOADED)
+	 * MARK VALUABLE CARDS
 	 * 
-	 * Returns true if the hand contains a pair (e.g. {♠2, ♡5, ♢6, ♠6, ♣9}).
-	 * If true, the value of the pair is saved to highestCard (e.g. 6).
-	 * Paired cards are marked as valuable.
+	 * Straights, flushes and full houses use every card so all cards are marked as valuable.
+	 * Otherwise the cards that make up the pair, two pair, triple or four of a kind are marked as
+	 * valuable, or the highest card if there is nothing else, and then any high kickers (a ten or higher).
 	 * 
-	 * @param hand
-	 * @return boolean
+	 * @param category
 	 */
-	private boolean checkForPair(Card[] hand) {
-		for(int i = 0; i < hand.length; i++) {
-			// if a valid ignore value exists the search will skip this value
-			if (ignore >= 0 && ignore < Card.VALUES.length)
-				if (hand[i].getValue() == ignore) continue;
-			for(int j = i + 1; j < hand.length; j++)
-				if ((hand[i].getValue() == hand[j].getValue())) {
-					highestCard = hand[i].getValue();
-					ignore = -1; // reset ignore to invalid value
-					valuableCards[i] = true;
-					valuableCards[j] = true;
-					return true;
-				}
+	private void markValuableCards(int category) {
+		switch(category) {
+			case HandEvaluator.ROYAL_FLUSH:
+			case HandEvaluator.STRAIGHT_FLUSH:
+			case HandEvaluator.FULL_HOUSE:
+			case HandEvaluator.FLUSH:
+			case HandEvaluator.STRAIGHT:
+				valuableCards = cards;
+				return;
+			case HandEvaluator.HIGH_CARD:
+				valuableCards = Long.highestOneBit(cards) | (cards & KICKERS);
+				return;
+			default:
+				long counts = HandEvaluator.valueCounts(cards);
+				long paired = ((counts >>> 1) | (counts >>> 2)) & HandEvaluator.SUIT_LANES; // values with 2 or more cards
+				valuableCards = (cards & paired * 0xF) | (cards & KICKERS);
 		}
-		ignore = -1; // reset ignore to invalid value
-		return false;
 	}
 	
 	/**
-	 * DETERMINE VALUABLE KICKERS
+	 * TO STRING
 	 * 
-	 * Used to ensure all non-valuable cards which are greater than a certain value
-	 * are marked as valuable.
+	 * @return string containing the suit and the value of every card object in the hand
 	 */
-	private void determineValuableKickers() {
-		for(int i = 0; i < valuableCards.length; i++)
-			if(!valuableCards[i] && hand[i].getValue() >= MIN_VALUABLE_KICKER_CARD) valuableCards[i] = true;
+	public String toString() {
+		return appendTo(new StringBuilder()).toString();
 	}
 	
 	/**
-	 * TO STRING
+	 * APPEND TO
 	 * 
-	 * @return string containing the suit and the value of every card object in the hand
+	 * Adds the same text as toString() to a builder, which can be cleared and used again for every hand.
+	 * 
+	 * @param text
+	 * @return the builder passed in
 	 */
-	public String toString() {
-		String toString = "";
-		for(int i = 0; i < Main.CARDS_PER_PLAYER; i++)
-			toString += " " + hand[i] + " ";
-		return toString;
+	public StringBuilder appendTo(StringBuilder text) {
+		for(long remaining = cards; remaining != 0; remaining &= remaining - 1)
+			text.append(' ').append(Card.ofBitboard(remaining)).append(' ');
+		return text;
 	}
 	
-}
+}
\ No newline at end of file
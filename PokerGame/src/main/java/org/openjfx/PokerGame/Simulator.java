@@ -0,0 +1,261 @@
+/**
+ * Simulator
+ * 
+ * A class used to play a large number of complete games at headless Tables, following the house rules in Table
+ * (open with MIN_OPEN, computer sees bets with MIN_COMPUTER_PROCEED, 1-3 coin bets, STARTING_COINS, game over at 0 coins).
+ * 
+ * You are played automatically by a DefaultStrategy (see setStrategy() to try another):
+ * 1. Always plays when the round can be opened
+ * 2. Refreshes the suggested cards (from the strategy file or the DrawOptimizer, the same as the computer)
+ * 3. Bets when holding at least the computer's MIN_COMPUTER_PROCEED, 1 coin for two pair, 2 for a triple, 3 for anything better
+ * 
+ * Tables are heads-up unless the pokergame.seats property asks for more seats (up to Table.MAX_SEATS),
+ * the extra seats are more computers and a game is won by you if every computer runs out of coins.
+ * 
+ * Games are split into batches that run in parallel, each batch on its own Table with its own generator
+ * (seeds are taken from one seeded generator in order, so the same seed always gives the same totals).
+ * Totals are added to LongAdders, which do not lock.
+ * Every round can also be recorded to a hand history file (see HandHistory), which all the batches share
+ * (heads-up only, a history with more seats is turned down before the file is created or any game is played),
+ * and both final hands (yours and the first computers) of every opened round can be kept off the heap in a HandStore.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+
+public class Simulator {
+	
+	/** Class constants */
+	final public static int GAMES_PER_BATCH = 256;
+	final public static int MAX_ROUNDS_PER_GAME = 100_000; // stops a game that never ends
+	final public static int MAX_STORED_HANDS_PER_GAME = 256;
+	final public static String SEATS_PROPERTY = "pokergame.seats";
+	
+	/** Class variables */
+	private int minOpen = Table.MIN_OPEN, minComputerProceed = Table.MIN_COMPUTER_PROCEED;
+	private int seats = Integer.getInteger(SEATS_PROPERTY, Table.HEADS_UP);
+	private Strategy you = new DefaultStrategy();
+	private HandHistoryWriter handHistory; // null if the games are not being recorded
+	private HandStore handStore; // null if the final hands are not being kept
+	private final LongAdder games = new LongAdder(), rounds = new LongAdder(), openedRounds = new LongAdder();
+	private final LongAdder computerGameWins = new LongAdder(), yourGameWins = new LongAdder(), unfinishedGames = new LongAdder();
+	private final LongAdder computerRoundWins = new LongAdder(), yourRoundWins = new LongAdder(), drawnRounds = new LongAdder();
+	private final LongAdder computerFolds = new LongAdder(), totalPot = new LongAdder();
+	
+	/**
+	 * MAIN
+	 * 
+	 * Arguments (all optional): number of games, seed, MIN_OPEN and MIN_COMPUTER_PROCEED values to try
+	 * (as category * 100 + highest card, e.g. 109 for a pair of jacks),
+	 * hand history file to append every round to, hand store file to save the final hands in
+	 * (sized for MAX_STORED_HANDS_PER_GAME hands a game).
+	 * 
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		long numberOfGames = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 2020;
+		Simulator simulator = new Simulator();
+		if(args.length > 2) simulator.setMinOpen(HandEvaluator.ofStrength(Integer.parseInt(args[2])));
+		if(args.length > 3) simulator.setMinComputerProceed(HandEvaluator.ofStrength(Integer.parseInt(args[3])));
+		if(args.length > 4) {
+			simulator.checkRecordable();
+			simulator.setHandHistory(new HandHistoryWriter(Paths.get(args[4])));
+		}
+		if(args.length > 5) simulator.setHandStore(new HandStore(Paths.get(args[5]), numberOfGames * MAX_STORED_HANDS_PER_GAME));
+		Metrics.getDefault().startDumping();
+		long start = System.nanoTime();
+		simulator.run(numberOfGames, seed);
+		if(simulator.handHistory != null) simulator.handHistory.close();
+		if(simulator.handStore != null) simulator.handStore.close();
+		System.out.print(simulator.report());
+		System.out.printf("Time:\t\t\t%.1f s%n", (System.nanoTime() - start) / 1e9);
+	}
+	
+	/**
+	 * SET MIN OPEN
+	 * 
+	 * @param minOpen
+	 */
+	public void setMinOpen(int minOpen) {
+		this.minOpen = minOpen;
+	}
+	
+	/**
+	 * SET MIN COMPUTER PROCEED
+	 * 
+	 * @param minComputerProceed
+	 */
+	public void setMinComputerProceed(int minComputerProceed) {
+		this.minComputerProceed = minComputerProceed;
+	}
+	
+	/**
+	 * SET SEATS
+	 * 
+	 * @param seats Table.HEADS_UP to Table.MAX_SEATS
+	 */
+	public void setSeats(int seats) {
+		if(seats < Table.HEADS_UP || seats > Table.MAX_SEATS) throw new IllegalArgumentException("A table has " + Table.HEADS_UP + " to " + Table.MAX_SEATS + " seats, not " + seats);
+		if(handHistory != null && seats != Table.HEADS_UP) throw new IllegalStateException("Only heads-up tables can be recorded, the games are already being recorded");
+		this.seats = seats;
+	}
+	
+	/**
+	 * SET STRATEGY
+	 * 
+	 * @param you the strategy that plays your side
+	 */
+	public void setStrategy(Strategy you) {
+		this.you = you;
+	}
+	
+	/**
+	 * SET HAND HISTORY
+	 * 
+	 * @param handHistory
+	 */
+	public void setHandHistory(HandHistoryWriter handHistory) {
+		if(handHistory != null) checkRecordable();
+		this.handHistory = handHistory;
+	}
+	
+	/**
+	 * CHECK RECORDABLE
+	 * 
+	 * The hand history format has room for two seats (see Table.setHandHistory()), so the games can only be
+	 * recorded heads-up. Checked up front, as otherwise every batch would fail once the games had started.
+	 */
+	private void checkRecordable() {
+		if(seats != Table.HEADS_UP)
+			throw new IllegalStateException("Only heads-up tables can be recorded, " + SEATS_PROPERTY + " is " + seats);
+	}
+	
+	/**
+	 * SET HAND STORE
+	 * 
+	 * @param handStore where both final hands of every opened round are added, until it is full
+	 */
+	public void setHandStore(HandStore handStore) {
+		this.handStore = handStore;
+	}
+	
+	/**
+	 * RUN
+	 * 
+	 * Plays the games across all cores, can be called more than once to add to the totals.
+	 * 
+	 * @param numberOfGames
+	 * @param seed
+	 */
+	public void run(long numberOfGames, long seed) {
+		int batches = (int) ((numberOfGames + GAMES_PER_BATCH - 1) / GAMES_PER_BATCH);
+		SplittableRandom seeds = new SplittableRandom(seed);
+		long[] batchSeeds = new long[batches];
+		for(int i = 0; i < batches; i++)
+			batchSeeds[i] = seeds.nextLong();
+		IntStream.range(0, batches).parallel().forEach(i -> {
+			long gamesInBatch = Math.min(GAMES_PER_BATCH, numberOfGames - (long) i * GAMES_PER_BATCH);
+			playBatch(new SplittableRandom(batchSeeds[i]), gamesInBatch);
+		});
+	}
+	
+	/**
+	 * PLAY BATCH
+	 * 
+	 * @param random
+	 * @param numberOfGames
+	 */
+	private void playBatch(SplittableRandom random, long numberOfGames) {
+		Table table = new Table(random.split(), seats);
+		table.setMinOpen(minOpen);
+		table.setMinComputerProceed(minComputerProceed);
+		if(!table.hasDrawStrategyTable()) table.setDrawOptimizer(DrawOptimizer.quick(random.split())); // the batches already keep every core busy
+		for(long game = 0; game < numberOfGames; game++) {
+			table.setUpGame(); // also deals the first game again so the rules above are used from the first round
+			if(game == 0) table.setHandHistory(handHistory);
+			playGame(table);
+		}
+		table.setHandHistory(null); // passes the last round to the writer
+	}
+	
+	/**
+	 * PLAY GAME
+	 * 
+	 * Plays rounds until you or every computer is out of coins.
+	 * 
+	 * @param table
+	 */
+	private void playGame(Table table) {
+		int roundsPlayed = 0;
+		while(!table.isGameOver() && roundsPlayed < MAX_ROUNDS_PER_GAME) {
+			if(roundsPlayed > 0) table.nextRound();
+			roundsPlayed++;
+			playRound(table);
+		}
+		games.increment();
+		rounds.add(roundsPlayed);
+		if(!table.isGameOver()) unfinishedGames.increment();
+		else if(table.getYou().getCoins() > 0) yourGameWins.increment();
+		else computerGameWins.increment();
+	}
+	
+	/**
+	 * PLAY ROUND
+	 * 
+	 * Plays your side of the round with the strategy and adds up the result.
+	 * 
+	 * @param table
+	 */
+	private void playRound(Table table) {
+		int result = table.playRound(you);
+		if(result == Table.NO_RESULT) return;
+		openedRounds.increment();
+		totalPot.add(table.getLastPot());
+		long index = handStore == null ? -1 : handStore.reserve(2); // both hands side by side, or neither once the store is full
+		if(index >= 0) {
+			handStore.set(index, table.getComputer().getCards(), table.getComputer().checkHand());
+			handStore.set(index + 1, table.getYou().getCards(), table.getYou().checkHand());
+		}
+		if(result == Table.COMPUTER_WINS) computerRoundWins.increment();
+		else if(result == Table.YOU_WIN) yourRoundWins.increment();
+		else if(result == Table.DRAW) drawnRounds.increment();
+		else {
+			yourRoundWins.increment();
+			computerFolds.increment();
+		}
+	}
+	
+	/**
+	 * REPORT
+	 * 
+	 * @return the totals so far as text
+	 */
+	public String report() {
+		double finishedGames = Math.max(1, games.sum() - unfinishedGames.sum());
+		double played = Math.max(1, openedRounds.sum());
+		StringBuilder report = new StringBuilder();
+		report.append(String.format("Rules:\t\t\tMIN_OPEN %d, MIN_COMPUTER_PROCEED %d, %d seats%n", HandEvaluator.strength(minOpen),
+				HandEvaluator.strength(minComputerProceed), seats));
+		report.append(String.format("Games:\t\t\t%,d (%,d unfinished)%n", games.sum(), unfinishedGames.sum()));
+		report.append(String.format("Rounds:\t\t\t%,d (%,d opened)%n", rounds.sum(), openedRounds.sum()));
+		report.append(String.format("Computer wins game:\t%.2f%%%n", computerGameWins.sum() * 100 / finishedGames));
+		report.append(String.format("You win game:\t\t%.2f%%%n", yourGameWins.sum() * 100 / finishedGames));
+		report.append(String.format("Average game length:\t%.1f rounds%n", rounds.sum() / Math.max(1.0, games.sum())));
+		report.append(String.format("Average pot:\t\t%.2f coins%n", totalPot.sum() / played));
+		report.append(String.format("Opened rounds:\t\tcomputer %.2f%%, you %.2f%%, draw %.2f%% (computer folds %.2f%%)%n",
+				computerRoundWins.sum() * 100 / played, yourRoundWins.sum() * 100 / played, drawnRounds.sum() * 100 / played,
+				computerFolds.sum() * 100 / played));
+		return report.toString();
+	}
+	
+}
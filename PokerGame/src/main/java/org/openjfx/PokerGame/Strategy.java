@@ -0,0 +1,70 @@
+/**
+ * Strategy
+ * 
+ * An interface for the decisions a player makes at a Table, so different ways of playing can be swapped in and played off
+ * against each other (see Tournament).
+ * 
+ * Every computer seat is asked to discard and call (see Table.setComputerStrategy()),
+ * your seat is asked to open, discard and bet (see Table.playRound()).
+ * Every decision is given the table and the seat, the hand and score are read from the table for that seat
+ * (e.g. table.getPlayer(seat)), as one strategy plays all the computer seats of a table.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+
+
+public interface Strategy {
+	
+	/**
+	 * OPEN
+	 * 
+	 * Asked straight after the deal when the round can be opened.
+	 * 
+	 * @param table
+	 * @param seat
+	 * @return true to play the round, false to move on to the next deal
+	 */
+	boolean open(Table table, int seat);
+	
+	/**
+	 * DISCARD
+	 * 
+	 * @param table
+	 * @param seat
+	 * @return mask of the cards to refresh (bit i is card i of the sorted hand, at most ALLOWED_REFRESHABLE_CARDS bits)
+	 */
+	int discard(Table table, int seat);
+	
+	/**
+	 * BET
+	 * 
+	 * Asked after the refresh when both players have coins left to bet with.
+	 * 
+	 * @param table
+	 * @param seat
+	 * @param maxBetAmount
+	 * @return the amount to bet (1 to maxBetAmount), or 0 to check
+	 */
+	int bet(Table table, int seat, int maxBetAmount);
+	
+	/**
+	 * CALL
+	 * 
+	 * @param table
+	 * @param seat
+	 * @param betAmount
+	 * @return true to see the bet, false to fold
+	 */
+	boolean call(Table table, int seat, int betAmount);
+	
+	/**
+	 * GET NAME
+	 * 
+	 * @return name of the strategy to show in results
+	 */
+	String getName();
+
+}
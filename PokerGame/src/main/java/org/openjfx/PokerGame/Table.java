@@ -0,0 +1,693 @@
+/**
+ * Table
+ * 
+ * A class used to run a game of poker without any user interface.
+ * Owns its own deck, players and pot, so any number of tables can exist at once.
+ * 
+ * A table has 2 (heads-up, the default) to MAX_SEATS seats: seat COMPUTER, seat YOU and then more computers.
+ * The players sit in an array and the scores in an int array indexed by seat, and the seats still in the round
+ * are the bits of one int, so dealing, betting and the showdown are single loops over the seats.
+ * A seat with no coins left sits out, the game is over when you or every computer is out of coins.
+ * 
+ * A round moves through the following stages:
+ * 1. DEALT - every hand is dealt from the one deck and evaluated, getOpener() says who (if anyone) can open
+ *    (the first seat, in seat order, holding at least the min open)
+ * 2. OPENED - open() has been called, every player has added 1 coin to the pot
+ * 3. REFRESHED - refresh() has replaced the selected cards and the cards picked for the computers
+ *    (looked up in the DrawStrategyTable file if there is one, otherwise worked out by the DrawOptimizer)
+ *    When the deck runs out the cards discarded so far are put back in it, as they would be at a real table.
+ * 4. BETTING - bet() has been called, submitBet() takes the amount and each computer calls or folds
+ * 5. ROUND_OVER or GAME_OVER - check() or submitBet() has decided the winner
+ * nextRound() deals a new round from any stage.
+ * 
+ * The computers decisions (which cards to refresh, whether to see a bet) are made by a Strategy,
+ * DefaultStrategy unless setComputerStrategy() is called. playRound() can also play your side with a Strategy.
+ * At the showdown the best score takes the pot, equal best scores split it (the odd coin goes to the first of them).
+ * 
+ * A Table is not thread safe, each table should only be used by one thread at a time.
+ * If a HandHistoryWriter is set, every deal, open, refresh, bet and result is recorded (see HandHistory),
+ * the records of a round are passed to the writer together when the round ends. Only heads-up tables can be recorded.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+
+public class Table {
+	
+	/** Class constants */
+	final public static int STARTING_COINS = 10;
+	final public static int CARDS_PER_PLAYER = 5;
+	final public static int HEADS_UP = 2, MAX_SEATS = Card.DECK_SIZE / CARDS_PER_PLAYER;
+	final public static int ALLOWED_REFRESHABLE_CARDS = 4;
+	final public static int MIN_OPEN = HandEvaluator.lowestScore(HandEvaluator.PAIR, 9); // any pair of jacks
+	final public static int MIN_COMPUTER_PROCEED = HandEvaluator.lowestScore(HandEvaluator.TWO_PAIR, 0); // any two pair
+	final public static int MAX_BET_AMOUNT = 3;
+	final public static String[] OUTCOMES = new String[] {"High Card", "Pair", "Two Pair", "Triple", "Straight", "Flush",
+			"Full House", "Four Of A Kind", "Straight Flush", "Royal Flush"};
+	
+	/** Seats (also the index into scores, seats from 2 up are more computers) */
+	final public static int NOBODY = -1, COMPUTER = 0, YOU = 1;
+	
+	/** Stages of a round */
+	final public static int DEALT = 0, OPENED = 1, REFRESHED = 2, BETTING = 3, ROUND_OVER = 4, GAME_OVER = 5;
+	
+	/** Results of a round */
+	final public static int NO_RESULT = -1, COMPUTER_WINS = 0, YOU_WIN = 1, DRAW = 2, COMPUTER_FOLDS = 3;
+	
+	/** Class variables */
+	private RandomGenerator random;
+	private DrawOptimizer drawOptimizer;
+	private DrawStrategyTable drawStrategyTable; // null if there is no strategy file
+	private Strategy computerStrategy = new DefaultStrategy();
+	private Deck deck;
+	private Player[] players;
+	private int[] scores;
+	private int inRound; // bit i is set while seat i is still in the round
+	private int winners; // bit i is set for every seat that won the last showdown
+	private long discards; // bitboard of the cards refreshed this round and not put back in the deck
+	private int pot, lastPot, round, stage, opener, result, computersRefreshedCards, cardsReturned;
+	private int minOpen = MIN_OPEN, minComputerProceed = MIN_COMPUTER_PROCEED; // can be changed to try other rules
+	private HandHistoryWriter handHistory; // null if the game is not being recorded
+	private Metrics metrics = Metrics.getDefault();
+	private long roundStart; // System.nanoTime() of the deal
+	private boolean roundCounted; // true once the round has been added to the metrics
+	private ByteBuffer roundHistory = ByteBuffer.allocate(HandHistory.RECORD_SIZE * HandHistory.MAX_RECORDS_PER_ROUND);
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * Uses a new randomly seeded generator for dealing.
+	 */
+	public Table() {
+		this(new SplittableRandom());
+	}
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * Uses a generator created from a seed, the same seed and the same actions always play out the same game.
+	 * 
+	 * @param seed
+	 */
+	public Table(long seed) {
+		this(new SplittableRandom(seed));
+	}
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * Uses the generator passed in for every deck dealt at this table (and to seed the DrawOptimizer).
+	 * Sets up a new heads-up game.
+	 * 
+	 * @param random
+	 */
+	public Table(RandomGenerator random) {
+		this(random, HEADS_UP);
+	}
+	
+	/**
+	 * CONSTRUCTOR (OVERLOADED)
+	 * 
+	 * Sets up a new game with more computers, every seat from 2 up is another computer played by the computers strategy.
+	 * 
+	 * @param random
+	 * @param seats HEADS_UP to MAX_SEATS
+	 */
+	public Table(RandomGenerator random, int seats) {
+		if(seats < HEADS_UP || seats > MAX_SEATS) throw new IllegalArgumentException("A table has " + HEADS_UP + " to " + MAX_SEATS + " seats, not " + seats);
+		this.random = random;
+		this.players = new Player[seats];
+		this.scores = new int[seats];
+		this.drawOptimizer = new DrawOptimizer(DrawOptimizer.DEFAULT_EXACT_LIMIT, DrawOptimizer.DEFAULT_SAMPLES_PER_MASK,
+				DrawOptimizer.DEFAULT_BUDGET_NANOS, new SplittableRandom(random.nextLong()));
+		this.drawStrategyTable = DrawStrategyTable.getDefault();
+		setUpGame();
+	}
+	
+	/**
+	 * SET UP GAME
+	 * 
+	 * Creates the deck and players the first time, after that the same deck is shuffled back together and
+	 * the same players are reset, so playing game after game creates no garbage.
+	 * Evaluates every hand and checks if players can open.
+	 */
+	public void setUpGame() {
+		countRound();
+		if(deck == null) {
+			deck = new Deck(random);
+			for(int seat = 0; seat < players.length; seat++)
+				players[seat] = new Player(deck);
+		}
+		else {
+			deck.setDeck();
+			for(Player player : players)
+				player.reset(deck);
+		}
+		inRound = (1 << players.length) - 1;
+		pot = 0;
+		round = 1;
+		startRound();
+	}
+	
+	/**
+	 * NEXT ROUND
+	 * 
+	 * Puts every card back in the deck and deals new hands to the players with coins left.
+	 * Evaluates every hand and checks if players can open.
+	 */
+	public void nextRound() {
+		countRound();
+		deck.setDeck();
+		inRound = 0;
+		for(int seat = 0; seat < players.length; seat++)
+			if(players[seat].getCoins() > 0) {
+				players[seat].generateHand(deck);
+				inRound |= 1 << seat;
+			}
+		round++;
+		startRound();
+	}
+	
+	/**
+	 * START ROUND
+	 * 
+	 * Evaluates the hands just dealt, checks if players can open and records the deal.
+	 */
+	private void startRound() {
+		discards = 0;
+		cardsReturned = 0;
+		winners = 0;
+		evaluateHands();
+		checkOpen();
+		recordDeal();
+	}
+	
+	/**
+	 * OPEN
+	 * 
+	 * Adds 1 coin from every player in the round to the pot.
+	 * Only allowed straight after the deal and if one of the players can open.
+	 */
+	public void open() {
+		checkStage(DEALT);
+		if(opener == NOBODY) throw new IllegalStateException("No player can open");
+		for(int seats = inRound; seats != 0; seats &= seats - 1)
+			players[Integer.numberOfTrailingZeros(seats)].setCoins(-1);
+		pot += Integer.bitCount(inRound);
+		stage = OPENED;
+		metrics.opened(opener);
+		record(HandHistory.OPEN, opener, pot, 0, 0, 0);
+	}
+	
+	/**
+	 * REFRESH
+	 * 
+	 * Refreshes the cards the computers strategy picks for every computer in the round and your selected cards, in seat order.
+	 * Bit i of the mask selects card i of your hand (e.g. 0b00011 refreshes your two lowest cards).
+	 * 
+	 * @param yourCardsToRefresh
+	 * @return the number of cards the computer (seat COMPUTER) refreshed
+	 */
+	public int refresh(int yourCardsToRefresh) {
+		checkStage(OPENED);
+		if(Integer.bitCount(yourCardsToRefresh) > ALLOWED_REFRESHABLE_CARDS || (yourCardsToRefresh >>> CARDS_PER_PLAYER) != 0)
+			throw new IllegalArgumentException("Invalid cards to refresh: " + Integer.toBinaryString(yourCardsToRefresh));
+		computersRefreshedCards = 0;
+		for(int seats = inRound; seats != 0; seats &= seats - 1) {
+			int seat = Integer.numberOfTrailingZeros(seats);
+			int cardsToRefresh = yourCardsToRefresh;
+			if(seat != YOU) {
+				cardsToRefresh = computerStrategy.discard(this, seat);
+				if(Integer.bitCount(cardsToRefresh) > ALLOWED_REFRESHABLE_CARDS || (cardsToRefresh >>> CARDS_PER_PLAYER) != 0)
+					throw new IllegalStateException(computerStrategy.getName() + " picked invalid cards to refresh: " + Integer.toBinaryString(cardsToRefresh));
+				if(seat == COMPUTER) computersRefreshedCards = Integer.bitCount(cardsToRefresh);
+			}
+			replaceCards(seat, cardsToRefresh);
+			scores[seat] = players[seat].checkHand();
+			record(HandHistory.REFRESH, seat, cardsToRefresh, 0, scores[seat], HandHistory.cards(players[seat]));
+		}
+		stage = REFRESHED;
+		return computersRefreshedCards;
+	}
+	
+	/**
+	 * REPLACE CARDS
+	 * 
+	 * Swaps a players cards for new ones from the deck. If the deck is too small the cards the players before
+	 * have discarded are put back in it first (and the players own discards, if that is still not enough).
+	 * 
+	 * @param seat
+	 * @param cardsToRefresh bit i selects card i of the hand
+	 */
+	private void replaceCards(int seat, int cardsToRefresh) {
+		if(cardsToRefresh == 0) return;
+		long discarded = players[seat].discardCards(cardsToRefresh);
+		int needed = Long.bitCount(discarded);
+		if(deck.deckSize() < needed) {
+			cardsReturned += deck.returnCards(discards);
+			discards = 0;
+		}
+		if(deck.deckSize() < needed) {
+			cardsReturned += deck.returnCards(discarded);
+			discarded = 0;
+		}
+		players[seat].drawCards(deck);
+		discards |= discarded;
+	}
+	
+	/**
+	 * GET SUGGESTED REFRESH
+	 * 
+	 * Looks up the cards a player should refresh in the strategy file, or uses the DrawOptimizer if there is no file.
+	 * 
+	 * @param seat
+	 * @return mask of the cards to refresh (bit i is card i of the sorted hand)
+	 */
+	public int getSuggestedRefresh(int seat) {
+		Player player = players[seat];
+		if(drawStrategyTable != null) return drawStrategyTable.bestDiscard(player);
+		return drawOptimizer.bestDiscard(player);
+	}
+	
+	/**
+	 * GET DRAW ODDS
+	 * 
+	 * The odds are worked out from what the player can see, every card not in the hand is an equally likely replacement.
+	 * That is exact as long as no discards are put back in the deck (see replaceCards()), which can't happen with
+	 * 5 seats or fewer (9 cards a seat). With more seats the deck can run low, the replacements then include discards
+	 * (mostly low cards) and the odds are only an estimate. The cards actually left are not used, as the player can't see them.
+	 * 
+	 * @param seat
+	 * @param cardsToRefresh bit i selects card i of the sorted hand
+	 * @return the exact chance of the players hand finishing in each category after refreshing the cards,
+	 *         indexed the same as OUTCOMES (see DrawOdds, the array is shared and should not be changed)
+	 */
+	public double[] getDrawOdds(int seat, int cardsToRefresh) {
+		return DrawOdds.getDefault().odds(players[seat], cardsToRefresh);
+	}
+	
+	/**
+	 * CAN BET
+	 * 
+	 * @return true if every player in the round has coins left to bet with, otherwise you can only check
+	 */
+	public boolean canBet() {
+		return getMaxBetAmount() > 0;
+	}
+	
+	/**
+	 * BET
+	 * 
+	 * Starts a bet, the amount is then given to submitBet().
+	 * 
+	 * @return the largest amount that can be bet based on the balance of every player in the round (1-3)
+	 */
+	public int bet() {
+		checkStage(REFRESHED);
+		if(!canBet()) throw new IllegalStateException("A player has no coins left to bet");
+		stage = BETTING;
+		return getMaxBetAmount();
+	}
+	
+	/**
+	 * GET MAX BET AMOUNT
+	 * 
+	 * @return the largest amount that can be bet based on the balance of every player in the round (0 if a player has no coins)
+	 */
+	public int getMaxBetAmount() {
+		int maxBetAmount = MAX_BET_AMOUNT;
+		for(int seats = inRound; seats != 0; seats &= seats - 1)
+			maxBetAmount = Math.min(maxBetAmount, players[Integer.numberOfTrailingZeros(seats)].getCoins());
+		return maxBetAmount;
+	}
+	
+	/**
+	 * SUBMIT BET
+	 * 
+	 * Asks the computers strategy if each computer in the round will match the bet or fold, in seat order.
+	 * A bet of 0 is the same as checking. If every computer folds you win the pot.
+	 * 
+	 * @param betAmount
+	 * @return the result of the round
+	 */
+	public int submitBet(int betAmount) {
+		checkStage(BETTING);
+		if(betAmount < 0 || betAmount > getMaxBetAmount())
+			throw new IllegalArgumentException("Invalid bet amount: " + betAmount);
+		record(HandHistory.BET, YOU, betAmount, 0, 0, 0);
+		if(betAmount == 0) return showdown();
+		players[YOU].setCoins(-betAmount);
+		pot += betAmount;
+		for(int seats = inRound & ~(1 << YOU); seats != 0; seats &= seats - 1) {
+			int seat = Integer.numberOfTrailingZeros(seats);
+			boolean called = computerStrategy.call(this, seat, betAmount);
+			metrics.betAnswered(called);
+			if(called) {
+				players[seat].setCoins(-betAmount);
+				pot += betAmount;
+				record(HandHistory.CALL, seat, betAmount, pot, 0, 0);
+			}
+			else inRound &= ~(1 << seat);
+		}
+		if(inRound != 1 << YOU) return showdown();
+		players[YOU].setCoins(pot);
+		winners = 1 << YOU;
+		lastPot = pot;
+		pot = 0;
+		result = COMPUTER_FOLDS;
+		stage = ROUND_OVER;
+		record(HandHistory.FOLD, COMPUTER, lastPot, stage, HandHistory.coins(players[YOU].getCoins(), players[COMPUTER].getCoins()), 0);
+		writeRoundHistory();
+		countRound();
+		return result;
+	}
+	
+	/**
+	 * CHECK
+	 * 
+	 * Compares both hands and evaluates the winner.
+	 * 
+	 * @return the result of the round
+	 */
+	public int check() {
+		checkStage(REFRESHED);
+		record(HandHistory.BET, YOU, 0, 0, 0, 0);
+		return showdown();
+	}
+	
+	/**
+	 * PLAY ROUND
+	 * 
+	 * Plays the round just dealt with your decisions made by a strategy: opens if it wants to play,
+	 * refreshes its cards and then bets or checks.
+	 * 
+	 * @param yours
+	 * @return the result of the round, NO_RESULT if the round could not be opened or the strategy did not want to play
+	 */
+	public int playRound(Strategy yours) {
+		checkStage(DEALT);
+		if(opener == NOBODY || !yours.open(this, YOU)) return NO_RESULT;
+		open();
+		refresh(yours.discard(this, YOU));
+		int betAmount = canBet() ? yours.bet(this, YOU, getMaxBetAmount()) : 0;
+		if(betAmount == 0) return check();
+		bet();
+		return submitBet(betAmount);
+	}
+	
+	/**
+	 * SHOWDOWN
+	 * 
+	 * Finds the best score of the players still in the round in one pass (the scores are full rank keys, so equal
+	 * scores are real ties), splits the pot between the winners and checks if the game is over.
+	 * The result is from your side: YOU_WIN if you won alone, DRAW if you split the pot, otherwise COMPUTER_WINS.
+	 * 
+	 * @return the result of the round
+	 */
+	private int showdown() {
+		int best = -1;
+		winners = 0;
+		for(int seats = inRound; seats != 0; seats &= seats - 1) {
+			int seat = Integer.numberOfTrailingZeros(seats);
+			if(scores[seat] > best) {
+				best = scores[seat];
+				winners = 0;
+			}
+			if(scores[seat] == best) winners |= 1 << seat;
+		}
+		int share = pot / Integer.bitCount(winners);
+		players[Integer.numberOfTrailingZeros(winners)].setCoins(pot - share * Integer.bitCount(winners));
+		for(int seats = winners; seats != 0; seats &= seats - 1)
+			players[Integer.numberOfTrailingZeros(seats)].setCoins(share);
+		if(winners == 1 << YOU) result = YOU_WIN;
+		else if((winners & 1 << YOU) != 0) result = DRAW;
+		else result = COMPUTER_WINS;
+		lastPot = pot;
+		pot = 0;
+		stage = isOutOfCoins() ? GAME_OVER : ROUND_OVER;
+		record(HandHistory.SHOWDOWN, result, lastPot, stage, HandHistory.coins(players[YOU].getCoins(), players[COMPUTER].getCoins()), 0);
+		writeRoundHistory();
+		countRound();
+		return result;
+	}
+	
+	/**
+	 * IS OUT OF COINS
+	 * 
+	 * @return true if you or every computer has no coins left
+	 */
+	private boolean isOutOfCoins() {
+		if(players[YOU].getCoins() <= 0) return true;
+		for(int seat = 0; seat < players.length; seat++)
+			if(seat != YOU && players[seat].getCoins() > 0) return false;
+		return true;
+	}
+	
+	/**
+	 * EVALUATE HANDS
+	 * 
+	 * Calls the checkHand() method from the player objects in the round.
+	 * Saves the scores to an array indexed by seat.
+	 */
+	private void evaluateHands() {
+		for(int seats = inRound; seats != 0; seats &= seats - 1) {
+			int seat = Integer.numberOfTrailingZeros(seats);
+			scores[seat] = players[seat].checkHand();
+		}
+	}
+	
+	/**
+	 * CHECK OPEN
+	 * 
+	 * Checks if the players have the minimum hand value to open the game.
+	 * The computer gets the first chance to open, then you, then the other computers.
+	 */
+	private void checkOpen() {
+		opener = NOBODY;
+		for(int seats = inRound; seats != 0 && opener == NOBODY; seats &= seats - 1)
+			if(scores[Integer.numberOfTrailingZeros(seats)] >= minOpen) opener = Integer.numberOfTrailingZeros(seats);
+		result = NO_RESULT;
+		computersRefreshedCards = 0;
+		stage = DEALT;
+		roundStart = System.nanoTime();
+		roundCounted = false;
+	}
+	
+	/**
+	 * SET MIN OPEN
+	 * 
+	 * Changes the hand value needed to open (MIN_OPEN by default), takes effect from the next deal.
+	 * 
+	 * @param minOpen
+	 */
+	public void setMinOpen(int minOpen) {
+		this.minOpen = minOpen;
+	}
+	
+	/**
+	 * SET MIN COMPUTER PROCEED
+	 * 
+	 * Changes the hand value the computer needs to see a bet (MIN_COMPUTER_PROCEED by default, see DefaultStrategy).
+	 * 
+	 * @param minComputerProceed
+	 */
+	public void setMinComputerProceed(int minComputerProceed) {
+		this.minComputerProceed = minComputerProceed;
+	}
+	
+	/**
+	 * SET COMPUTER STRATEGY
+	 * 
+	 * Replaces the strategy that makes the computers decisions, takes effect from the next decision.
+	 * 
+	 * @param computerStrategy
+	 */
+	public void setComputerStrategy(Strategy computerStrategy) {
+		this.computerStrategy = computerStrategy;
+	}
+	
+	/**
+	 * SET DRAW OPTIMIZER
+	 * 
+	 * Replaces the DrawOptimizer used when there is no strategy file (e.g. a faster, sampled one for simulations).
+	 * 
+	 * @param drawOptimizer
+	 */
+	public void setDrawOptimizer(DrawOptimizer drawOptimizer) {
+		this.drawOptimizer = drawOptimizer;
+	}
+	
+	/**
+	 * HAS DRAW STRATEGY TABLE
+	 * 
+	 * @return true if refreshes are looked up in a strategy file rather than worked out by the DrawOptimizer
+	 */
+	public boolean hasDrawStrategyTable() {
+		return drawStrategyTable != null;
+	}
+	
+	/**
+	 * COUNT ROUND
+	 * 
+	 * Adds the round to the metrics when it ends, or when the next deal replaces a round that was not played out.
+	 */
+	private void countRound() {
+		if(deck == null || roundCounted) return;
+		metrics.roundPlayed(System.nanoTime() - roundStart, Card.DECK_SIZE - deck.deckSize() + cardsReturned);
+		roundCounted = true;
+	}
+	
+	/**
+	 * SET HAND HISTORY
+	 * 
+	 * Starts recording every round to the writer (null stops recording).
+	 * If a round has just been dealt it is recorded from the deal.
+	 * The hand history format has room for two seats, so only heads-up tables can be recorded.
+	 * 
+	 * @param handHistory
+	 */
+	public void setHandHistory(HandHistoryWriter handHistory) {
+		if(handHistory != null && players.length != HEADS_UP) throw new IllegalStateException("Only heads-up tables can be recorded");
+		writeRoundHistory();
+		this.handHistory = handHistory;
+		if(stage == DEALT) recordDeal();
+	}
+	
+	/**
+	 * RECORD DEAL
+	 * 
+	 * Passes the last round to the writer and records the start of a new round.
+	 */
+	private void recordDeal() {
+		if(handHistory == null) return;
+		writeRoundHistory();
+		record(HandHistory.ROUND, opener, players[YOU].getCoins(), players[COMPUTER].getCoins(), round, (long) minOpen << 32 | (minComputerProceed & 0xFFFFFFFFL));
+		record(HandHistory.DEAL, COMPUTER, pot, 0, scores[COMPUTER], HandHistory.cards(players[COMPUTER]));
+		record(HandHistory.DEAL, YOU, pot, 0, scores[YOU], HandHistory.cards(players[YOU]));
+	}
+	
+	/**
+	 * RECORD
+	 * 
+	 * Adds a record to the current round if the game is being recorded (see HandHistory for the fields).
+	 * 
+	 * @param type
+	 * @param seat
+	 * @param a
+	 * @param b
+	 * @param value
+	 * @param extra
+	 */
+	private void record(int type, int seat, int a, int b, int value, long extra) {
+		if(handHistory != null) HandHistory.put(roundHistory, type, seat, a, b, value, extra);
+	}
+	
+	/**
+	 * WRITE ROUND HISTORY
+	 * 
+	 * Passes the records of the current round to the writer.
+	 */
+	private void writeRoundHistory() {
+		if(handHistory == null || roundHistory.position() == 0) return;
+		roundHistory.flip();
+		handHistory.write(roundHistory);
+		roundHistory.clear();
+	}
+	
+	/**
+	 * CHECK STAGE
+	 * 
+	 * Makes sure an action is only taken at the right point of the round.
+	 * 
+	 * @param expected
+	 */
+	private void checkStage(int expected) {
+		if(stage != expected) throw new IllegalStateException("Action not allowed at stage " + stage);
+	}
+	
+	/**
+	 * GETTERS
+	 */
+	public Deck getDeck() {
+		return deck;
+	}
+	
+	public Player getComputer() {
+		return players[COMPUTER];
+	}
+	
+	public Player getYou() {
+		return players[YOU];
+	}
+	
+	public Player getPlayer(int seat) {
+		return players[seat];
+	}
+	
+	public int getSeats() {
+		return players.length;
+	}
+	
+	public boolean isInRound(int seat) { // dealt in and not folded
+		return (inRound & 1 << seat) != 0;
+	}
+	
+	public int getWinners() { // bit i is set for every seat that won the last round
+		return winners;
+	}
+	
+	public int getPot() {
+		return pot;
+	}
+	
+	public int getLastPot() { // the pot paid out at the end of the last round
+		return lastPot;
+	}
+	
+	public int getRound() {
+		return round;
+	}
+	
+	public int getStage() {
+		return stage;
+	}
+	
+	public int getOpener() {
+		return opener;
+	}
+	
+	public int getResult() {
+		return result;
+	}
+	
+	public int getComputersRefreshedCards() {
+		return computersRefreshedCards;
+	}
+	
+	public int getMinOpen() {
+		return minOpen;
+	}
+	
+	public int getMinComputerProceed() {
+		return minComputerProceed;
+	}
+	
+	public Strategy getComputerStrategy() {
+		return computerStrategy;
+	}
+	
+	public int getScore(int seat) {
+		return scores[seat];
+	}
+	
+	public boolean isGameOver() {
+		return stage == GAME_OVER;
+	}
+
+}
@@ -0,0 +1,229 @@
+/**
+ * Tournament
+ * 
+ * A class used to play strategies off against each other: every pair of strategies plays the same number of
+ * complete games head to head (round robin), and each strategy is scored by the share of games it wins.
+ * 
+ * Games are played in pairs from the same seed, once with each strategy in the computer seat, so the advantage
+ * of a seat and the luck of the first deals cancel out. The pairs run in parallel across all cores,
+ * each game on its own Table created from its seed, so the same seed always gives the same results.
+ * 
+ * A game that reaches MAX_ROUNDS_PER_GAME counts as half a win to each strategy. The score of a pairing
+ * is given with a 95% confidence interval worked out from the spread of the pair scores (normal approximation).
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+
+public class Tournament {
+	
+	/** Class constants */
+	final public static int DEFAULT_GAME_PAIRS = 2_000; // per pairing
+	final public static double Z_95 = 1.96; // standard normal quantile for a 95% interval
+	final private static int PAIR_WIN = 3; // see outcome()
+	
+	/** Class variables */
+	private List<Strategy> strategies = new ArrayList<>();
+	
+	/**
+	 * MAIN
+	 * 
+	 * Arguments (all optional): number of game pairs per pairing, seed.
+	 * 
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		int gamePairs = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAME_PAIRS;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 2020;
+		Tournament tournament = new Tournament();
+		tournament.add(new DefaultStrategy());
+		tournament.add(new DefaultStrategy("Loose", HandEvaluator.lowestScore(HandEvaluator.PAIR, 0)));
+		tournament.add(new DefaultStrategy("Tight", HandEvaluator.lowestScore(HandEvaluator.TRIPLE, 0)));
+		tournament.add(new ValuableCardStrategy("Valuable Cards", -1));
+		long start = System.nanoTime();
+		List<Result> results = tournament.run(gamePairs, seed);
+		for(Result result : results)
+			System.out.println(result);
+		System.out.println();
+		for(Strategy strategy : tournament.strategies)
+			System.out.printf("%-16s %6.2f%% of games won on average%n", strategy.getName(), tournament.averageScore(results, strategy) * 100);
+		System.out.printf("Time: %.1f s%n", (System.nanoTime() - start) / 1e9);
+	}
+	
+	/**
+	 * ADD
+	 * 
+	 * @param strategy
+	 */
+	public void add(Strategy strategy) {
+		strategies.add(strategy);
+	}
+	
+	/**
+	 * RUN
+	 * 
+	 * Plays every pair of strategies added.
+	 * 
+	 * @param gamePairs number of game pairs for each pairing
+	 * @param seed
+	 * @return the result of every pairing
+	 */
+	public List<Result> run(int gamePairs, long seed) {
+		List<Result> results = new ArrayList<>();
+		SplittableRandom seeds = new SplittableRandom(seed);
+		for(int i = 0; i < strategies.size(); i++)
+			for(int j = i + 1; j < strategies.size(); j++)
+				results.add(play(strategies.get(i), strategies.get(j), gamePairs, seeds.nextLong()));
+		return results;
+	}
+	
+	/**
+	 * PLAY
+	 * 
+	 * Plays one pairing.
+	 * 
+	 * @param first
+	 * @param second
+	 * @param gamePairs
+	 * @param seed
+	 * @return the result from the point of view of the first strategy
+	 */
+	public static Result play(Strategy first, Strategy second, int gamePairs, long seed) {
+		SplittableRandom seeds = new SplittableRandom(seed);
+		long[] gameSeeds = new long[gamePairs];
+		for(int i = 0; i < gamePairs; i++)
+			gameSeeds[i] = seeds.nextLong();
+		int[] pairs = IntStream.range(0, gamePairs).parallel()
+				.map(i -> outcome(playGame(first, second, gameSeeds[i]), Table.COMPUTER) + outcome(playGame(second, first, gameSeeds[i]), Table.YOU))
+				.toArray();
+		return new Result(first, second, pairs);
+	}
+	
+	/**
+	 * OUTCOME
+	 * 
+	 * Outcomes of a pair of games are added together, so they hold the wins of the first strategy * PAIR_WIN + the games not finished.
+	 * 
+	 * @param winner
+	 * @param seat the seat of the first strategy
+	 * @return PAIR_WIN if the seat won the game, 1 if the game did not finish, otherwise 0
+	 */
+	private static int outcome(int winner, int seat) {
+		return winner == seat ? PAIR_WIN : winner == Table.NOBODY ? 1 : 0;
+	}
+	
+	/**
+	 * PLAY GAME
+	 * 
+	 * Plays rounds until one player is out of coins or the game reaches MAX_ROUNDS_PER_GAME.
+	 * 
+	 * @param computer strategy for the computer seat
+	 * @param you strategy for your seat
+	 * @param seed
+	 * @return the seat that won the game, NOBODY if it did not finish
+	 */
+	private static int playGame(Strategy computer, Strategy you, long seed) {
+		Table table = new Table(seed);
+		table.setComputerStrategy(computer);
+		if(!table.hasDrawStrategyTable()) table.setDrawOptimizer(DrawOptimizer.quick(new SplittableRandom(seed)));
+		for(int round = 1; !table.isGameOver(); round++) {
+			if(round > Simulator.MAX_ROUNDS_PER_GAME) return Table.NOBODY;
+			if(round > 1) table.nextRound();
+			table.playRound(you);
+		}
+		return table.getComputer().getCoins() <= 0 ? Table.YOU : Table.COMPUTER;
+	}
+	
+	/**
+	 * AVERAGE SCORE
+	 * 
+	 * @param results
+	 * @param strategy
+	 * @return the average score of the strategy over all its pairings
+	 */
+	public double averageScore(List<Result> results, Strategy strategy) {
+		double total = 0;
+		int pairings = 0;
+		for(Result result : results) {
+			if(result.getFirst() == strategy) total += result.getScore();
+			else if(result.getSecond() == strategy) total += 1 - result.getScore();
+			else continue;
+			pairings++;
+		}
+		return pairings == 0 ? 0 : total / pairings;
+	}
+	
+	
+	/**
+	 * Stores the result of one pairing, from the point of view of the first strategy.
+	 */
+	public static final class Result {
+		
+		private final Strategy first, second;
+		private final int games;
+		private final long firstWins, secondWins;
+		private final double score, margin;
+		
+		public Result(Strategy first, Strategy second, int[] pairs) {
+			this.first = first;
+			this.second = second;
+			this.games = pairs.length * 2;
+			long wins = 0, unfinished = 0, halfWins = 0, squares = 0;
+			for(int pair : pairs) {
+				int pairHalfWins = pair / PAIR_WIN * 2 + pair % PAIR_WIN; // an unfinished game is half a win
+				wins += pair / PAIR_WIN;
+				unfinished += pair % PAIR_WIN;
+				halfWins += pairHalfWins;
+				squares += pairHalfWins * pairHalfWins;
+			}
+			this.firstWins = wins;
+			this.secondWins = games - wins - unfinished;
+			// the score of each pair is its half wins / 4, the interval comes from the spread of those scores
+			int n = pairs.length;
+			this.score = n == 0 ? 0 : halfWins / (4.0 * n);
+			double variance = n < 2 ? 0 : (squares / 16.0 - n * score * score) / (n - 1);
+			this.margin = Z_95 * Math.sqrt(Math.max(0, variance) / Math.max(1, n));
+		}
+		
+		public Strategy getFirst() {
+			return first;
+		}
+		
+		public Strategy getSecond() {
+			return second;
+		}
+		
+		public int getGames() {
+			return games;
+		}
+		
+		public long getFirstWins() {
+			return firstWins;
+		}
+		
+		public long getSecondWins() {
+			return secondWins;
+		}
+		
+		public double getScore() { // share of the games the first strategy won, from 0 to 1
+			return score;
+		}
+		
+		public double getMargin() { // half the width of the 95% confidence interval of the score
+			return margin;
+		}
+		
+		public String toString() {
+			return String.format("%-16s vs %-16s %6.2f%% +/- %.2f%% (%,d games, %,d - %,d)", first.getName(), second.getName(),
+					score * 100, margin * 100, games, firstWins, secondWins);
+		}
+	}
+
+}
@@ -0,0 +1,40 @@
+/**
+ * ValuableCardStrategy
+ * 
+ * Plays like DefaultStrategy but refreshes the way the computer did before the DrawOptimizer:
+ * every card that is not marked as valuable (see Player.checkIfValuableCard()) is refreshed, up to ALLOWED_REFRESHABLE_CARDS,
+ * lowest cards first.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+
+
+public class ValuableCardStrategy extends DefaultStrategy {
+	
+	/**
+	 * CONSTRUCTOR
+	 * 
+	 * @param name
+	 * @param minProceed hand value needed to bet or call
+	 */
+	public ValuableCardStrategy(String name, int minProceed) {
+		super(name, minProceed);
+	}
+	
+	/**
+	 * DISCARD
+	 */
+	@Override
+	public int discard(Table table, int seat) {
+		Player player = table.getPlayer(seat);
+		int cardsToRefresh = 0;
+		for(int i = 0; i < Table.CARDS_PER_PLAYER; i++)
+			if(!player.checkIfValuableCard(i) && Integer.bitCount(cardsToRefresh) < Table.ALLOWED_REFRESHABLE_CARDS)
+				cardsToRefresh |= 1 << i;
+		return cardsToRefresh;
+	}
+
+}
@@ -0,0 +1,210 @@
+/**
+ * VectorBatchEvaluator
+ * 
+ * Ranks hands for BatchEvaluator with the Vector API, one hand per lane (16 hands at a time with 512 bit vectors).
+ * Only loaded when the jdk.incubator.vector module is, use BatchEvaluator rather than this class.
+ * 
+ * Every step of HandEvaluator is worked out for all lanes without lookup tables (other than one vector) or branches:
+ * 1. The value bits of the cards are counted bit by bit (like adding up 13 counters at once), which gives the values
+ *    held at least once, twice, three and four times, and the number of pairs of cards with the same value
+ *    (1, 2, 3, 4 or 6 for a pair, two pair, triple, full house or four of a kind) picks the category
+ * 2. The values of the quad or triple (or the pairs if there is neither) are moved above the other values,
+ *    so taking the highest value off five times with the leading zeros lists the values in the order of the score
+ * 3. A flush test on the XOR of the suit bits and a straight test (five bits in a row, or the wheel) on the value bits
+ * The score of each lane is then picked from the possible scores with masks.
+ * The CATEGORY_BY_PAIRS vector needs at least 8 lanes, on smaller vectors isSupported() is false.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+
+final class VectorBatchEvaluator {
+	
+	/** Class constants */
+	final private static VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+	final private static int SUIT_BITS = Card.SUIT_MASK << Card.SUIT_SHIFT;
+	final private static int WHEEL = 0x100F; // A, 2, 3, 4, 5
+	final private static int ACE = Card.VALUES.length - 1;
+	final private static int HIGH_GROUP_SHIFT = 16; // the quad, triple or pairs are saved this far above the other values
+	final private static int PAIRS_SHIFT = 29, GROUPS = (1 << PAIRS_SHIFT) - 1;
+	final private static int FIRST_RANK_SHIFT = HandEvaluator.CATEGORY_SHIFT - HandEvaluator.RANK_BITS;
+	final private static int ALL_RANKS = (1 << HandEvaluator.CATEGORY_SHIFT) - 1;
+	final private static IntVector ZERO = IntVector.zero(SPECIES), ONE = IntVector.broadcast(SPECIES, 1), FIVE = IntVector.broadcast(SPECIES, 5);
+	final private static IntVector CATEGORY_BY_PAIRS = categoryByPairs();
+	
+	/**
+	 * CATEGORY BY PAIRS
+	 * 
+	 * A hand holds 0 (high card, straight or flush), 1 (pair), 2 (two pair), 3 (triple), 4 (full house)
+	 * or 6 (four of a kind) pairs of cards with the same value.
+	 * 
+	 * @return category << CATEGORY_SHIFT for each number of pairs, in the first lanes of a vector
+	 */
+	private static IntVector categoryByPairs() {
+		int[] categories = new int[SPECIES.length()];
+		int[] byPairs = new int[] {HandEvaluator.HIGH_CARD, HandEvaluator.PAIR, HandEvaluator.TWO_PAIR, HandEvaluator.TRIPLE,
+				HandEvaluator.FULL_HOUSE, HandEvaluator.HIGH_CARD, HandEvaluator.FOUR_OF_A_KIND};
+		for(int i = 0; i < byPairs.length && i < categories.length; i++)
+			categories[i] = byPairs[i] << HandEvaluator.CATEGORY_SHIFT;
+		return IntVector.fromArray(SPECIES, categories, 0);
+	}
+	
+	/**
+	 * CONSTRUCTOR
+	 * 
+	 * Not used, all methods are static.
+	 */
+	private VectorBatchEvaluator() {
+	}
+	
+	/**
+	 * IS SUPPORTED
+	 * 
+	 * @return true if the preferred vectors are big enough for this class
+	 */
+	static boolean isSupported() {
+		return SPECIES.length() >= 8;
+	}
+	
+	/**
+	 * EVALUATE
+	 * 
+	 * Ranks the hands in three passes over the batch, each small enough for the JIT compiler to turn every vector
+	 * operation into instructions (in one big loop some operations fall back to Java code that boxes the vectors).
+	 * The first pass saves the grouped values of each hand where its score goes, the second ranks them by their
+	 * pairs and the last finds the straights and flushes among the hands with five different values.
+	 * 
+	 * @param cards one array per card slot
+	 * @param scores
+	 * @param count
+	 */
+	static void evaluate(int[][] cards, int[] scores, int count) {
+		int[] c1 = cards[0], c2 = cards[1], c3 = cards[2], c4 = cards[3], c5 = cards[4];
+		int bound = SPECIES.loopBound(count);
+		group(c1, c2, c3, c4, c5, scores, bound);
+		rank(scores, bound);
+		rankStraightsAndFlushes(c1, c2, c3, c4, c5, scores, bound);
+		BatchEvaluator.evaluateScalar(cards, scores, bound, count);
+	}
+	
+	/**
+	 * GROUP
+	 * 
+	 * Counts the cards of each value and saves the value bits of the quad or triple (or the pairs if there is neither)
+	 * HIGH_GROUP_SHIFT above the value bits of the other cards, with the number of pairs of cards from PAIRS_SHIFT up.
+	 * 
+	 * @param c1
+	 * @param c2
+	 * @param c3
+	 * @param c4
+	 * @param c5
+	 * @param scores
+	 * @param bound
+	 */
+	private static void group(int[] c1, int[] c2, int[] c3, int[] c4, int[] c5, int[] scores, int bound) {
+		for(int i = 0; i < bound; i += SPECIES.length()) {
+			IntVector b1 = IntVector.fromArray(SPECIES, c1, i).lanewise(VectorOperators.LSHR, Card.VALUE_BIT_SHIFT);
+			IntVector b2 = IntVector.fromArray(SPECIES, c2, i).lanewise(VectorOperators.LSHR, Card.VALUE_BIT_SHIFT);
+			IntVector b3 = IntVector.fromArray(SPECIES, c3, i).lanewise(VectorOperators.LSHR, Card.VALUE_BIT_SHIFT);
+			IntVector b4 = IntVector.fromArray(SPECIES, c4, i).lanewise(VectorOperators.LSHR, Card.VALUE_BIT_SHIFT);
+			IntVector b5 = IntVector.fromArray(SPECIES, c5, i).lanewise(VectorOperators.LSHR, Card.VALUE_BIT_SHIFT);
+			// values held at least once, twice, three and four times
+			IntVector ones = b1.or(b2), twos = b1.and(b2);
+			IntVector threes = twos.and(b3);
+			twos = twos.or(ones.and(b3));
+			ones = ones.or(b3);
+			IntVector fours = threes.and(b4);
+			threes = threes.or(twos.and(b4));
+			twos = twos.or(ones.and(b4));
+			ones = ones.or(b4);
+			fours = fours.or(threes.and(b5));
+			threes = threes.or(twos.and(b5));
+			twos = twos.or(ones.and(b5));
+			ones = ones.or(b5);
+			// a pair is 1 pair of cards, a triple 3 (1 + 2) and a quad 6 (1 + 2 + 3)
+			IntVector pairs = twos.lanewise(VectorOperators.BIT_COUNT).add(threes.lanewise(VectorOperators.BIT_COUNT).mul(2))
+					.add(fours.lanewise(VectorOperators.BIT_COUNT).mul(3));
+			IntVector high = twos.blend(threes, threes.compare(VectorOperators.NE, 0));
+			pairs.lanewise(VectorOperators.LSHL, PAIRS_SHIFT).or(high.lanewise(VectorOperators.LSHL, HIGH_GROUP_SHIFT))
+					.or(ones.and(high.not())).intoArray(scores, i);
+		}
+	}
+	
+	/**
+	 * RANK
+	 * 
+	 * Turns the groups saved by group() into scores. The values are taken off the groups from the highest bit down,
+	 * which lists them in the order of the score (the quad, triple or pairs first), and the number of pairs of cards
+	 * gives the category. The five steps are written out as a loop would carry the vectors from one step to the next,
+	 * which the JIT compiler can only do by boxing them.
+	 * 
+	 * @param scores
+	 * @param bound
+	 */
+	private static void rank(int[] scores, int bound) {
+		for(int i = 0; i < bound; i += SPECIES.length()) {
+			IntVector saved = IntVector.fromArray(SPECIES, scores, i);
+			IntVector groups = saved.and(GROUPS), ranks = ZERO;
+			IntVector values = groups.lanewise(VectorOperators.BIT_COUNT);
+			IntVector bit = groups.lanewise(VectorOperators.LEADING_ZEROS_COUNT).neg().add(Integer.SIZE - 1);
+			ranks = ranks.lanewise(VectorOperators.LSHL, HandEvaluator.RANK_BITS).or(bit.and(HandEvaluator.RANK_MASK));
+			groups = groups.lanewise(VectorOperators.XOR, ONE.lanewise(VectorOperators.LSHL, bit));
+			bit = groups.lanewise(VectorOperators.LEADING_ZEROS_COUNT).neg().add(Integer.SIZE - 1);
+			ranks = ranks.lanewise(VectorOperators.LSHL, HandEvaluator.RANK_BITS).or(bit.and(HandEvaluator.RANK_MASK));
+			groups = groups.lanewise(VectorOperators.XOR, ONE.lanewise(VectorOperators.LSHL, bit));
+			bit = groups.lanewise(VectorOperators.LEADING_ZEROS_COUNT).neg().add(Integer.SIZE - 1);
+			ranks = ranks.lanewise(VectorOperators.LSHL, HandEvaluator.RANK_BITS).or(bit.and(HandEvaluator.RANK_MASK));
+			groups = groups.lanewise(VectorOperators.XOR, ONE.lanewise(VectorOperators.LSHL, bit));
+			bit = groups.lanewise(VectorOperators.LEADING_ZEROS_COUNT).neg().add(Integer.SIZE - 1);
+			ranks = ranks.lanewise(VectorOperators.LSHL, HandEvaluator.RANK_BITS).or(bit.and(HandEvaluator.RANK_MASK));
+			groups = groups.lanewise(VectorOperators.XOR, ONE.lanewise(VectorOperators.LSHL, bit));
+			bit = groups.lanewise(VectorOperators.LEADING_ZEROS_COUNT).neg().add(Integer.SIZE - 1);
+			ranks = ranks.lanewise(VectorOperators.LSHL, HandEvaluator.RANK_BITS).or(bit.and(HandEvaluator.RANK_MASK));
+			groups = groups.lanewise(VectorOperators.XOR, ONE.lanewise(VectorOperators.LSHL, bit));
+			// a hand with fewer than five values ran out of bits, what was added after that is cleared
+			ranks = ranks.and(IntVector.broadcast(SPECIES, ALL_RANKS).lanewise(VectorOperators.LSHL, FIVE.sub(values).lanewise(VectorOperators.LSHL, 2)));
+			saved.lanewise(VectorOperators.LSHR, PAIRS_SHIFT).selectFrom(CATEGORY_BY_PAIRS).or(ranks).intoArray(scores, i);
+		}
+	}
+	
+	/**
+	 * RANK STRAIGHTS AND FLUSHES
+	 * 
+	 * Hands with five different values were ranked as high cards, which also lists their values for straights and flushes.
+	 * 
+	 * @param c1
+	 * @param c2
+	 * @param c3
+	 * @param c4
+	 * @param c5
+	 * @param scores
+	 * @param bound
+	 */
+	private static void rankStraightsAndFlushes(int[] c1, int[] c2, int[] c3, int[] c4, int[] c5, int[] scores, int bound) {
+		for(int i = 0; i < bound; i += SPECIES.length()) {
+			IntVector a = IntVector.fromArray(SPECIES, c1, i), b = IntVector.fromArray(SPECIES, c2, i), c = IntVector.fromArray(SPECIES, c3, i);
+			IntVector d = IntVector.fromArray(SPECIES, c4, i), e = IntVector.fromArray(SPECIES, c5, i);
+			IntVector valueBits = a.or(b).or(c).or(d).or(e).lanewise(VectorOperators.LSHR, Card.VALUE_BIT_SHIFT);
+			VectorMask<Integer> flush = a.lanewise(VectorOperators.XOR, b).or(a.lanewise(VectorOperators.XOR, c))
+					.or(a.lanewise(VectorOperators.XOR, d)).or(a.lanewise(VectorOperators.XOR, e)).and(SUIT_BITS).eq(0);
+			VectorMask<Integer> wheel = valueBits.eq(WHEEL);
+			VectorMask<Integer> straight = valueBits.eq(valueBits.and(valueBits.neg()).mul(0x1F)).or(wheel);
+			IntVector score = IntVector.fromArray(SPECIES, scores, i), ranks = score; // HIGH_CARD is 0
+			// the highest card of a straight is the first rank, except for A, 2, 3, 4, 5 where it is the five
+			IntVector straightHigh = ranks.lanewise(VectorOperators.LSHR, FIRST_RANK_SHIFT).blend(3, wheel).lanewise(VectorOperators.LSHL, FIRST_RANK_SHIFT);
+			score = score.blend(straightHigh.or(HandEvaluator.STRAIGHT << HandEvaluator.CATEGORY_SHIFT), straight);
+			score = score.blend(ranks.or(HandEvaluator.FLUSH << HandEvaluator.CATEGORY_SHIFT), flush);
+			score = score.blend(straightHigh.or(HandEvaluator.STRAIGHT_FLUSH << HandEvaluator.CATEGORY_SHIFT), flush.and(straight));
+			score.blend(HandEvaluator.lowestScore(HandEvaluator.ROYAL_FLUSH, ACE), flush.and(straight).and(straightHigh.eq(ACE << FIRST_RANK_SHIFT)))
+					.intoArray(scores, i);
+		}
+	}
+
+}
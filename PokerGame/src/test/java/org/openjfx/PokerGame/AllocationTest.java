@@ -0,0 +1,70 @@
+/**
+ * AllocationTest
+ * 
+ * Checks that playing rounds at a Table creates no garbage once the JIT compiler has warmed up.
+ * Plays WARM_UP_ROUNDS and then ROUNDS complete rounds (DefaultStrategy on both sides, hands written out as text
+ * into a reused builder) and counts the bytes the thread allocated while playing them with the ThreadMXBean.
+ * Refreshes come from the strategy file if there is one, otherwise from a DrawOptimizer that does not run in parallel.
+ * Fails if more than MAX_BYTES_PER_ROUND were allocated on average. Every object is at least 16 bytes, so anything
+ * allocated in every round (or even every 16th round) fails, while a one-off allocation by the JVM in the measured
+ * window (e.g. the JIT compiler deoptimizing and recompiling a method) does not.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+
+public class AllocationTest {
+	
+	/** Class constants */
+	final public static int WARM_UP_ROUNDS = 10_000; // enough for the JIT compiler, about 2 s
+	final public static int ROUNDS = 5_000;
+	final public static int MAX_BYTES_PER_ROUND = 1;
+	
+	/**
+	 * PLAYING ROUNDS CREATES NO GARBAGE
+	 */
+	@Test
+	public void playingRoundsCreatesNoGarbage() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported(), "This JVM can't count allocated memory");
+		threads.setThreadAllocatedMemoryEnabled(true);
+		Table table = new Table(new SplittableRandom(2020));
+		if(!table.hasDrawStrategyTable()) table.setDrawOptimizer(DrawOptimizer.quick(new SplittableRandom(2020)));
+		Strategy you = new DefaultStrategy();
+		StringBuilder text = new StringBuilder();
+		playRounds(table, you, text, WARM_UP_ROUNDS);
+		long start = threads.getCurrentThreadAllocatedBytes();
+		playRounds(table, you, text, ROUNDS);
+		long allocated = threads.getCurrentThreadAllocatedBytes() - start;
+		assertTrue(allocated <= (long) ROUNDS * MAX_BYTES_PER_ROUND, () -> String.format("%,d rounds allocated %,d bytes (%s)", ROUNDS, allocated,
+				table.hasDrawStrategyTable() ? "strategy file" : "DrawOptimizer"));
+	}
+	
+	/**
+	 * PLAY ROUNDS
+	 * 
+	 * @param table
+	 * @param you
+	 * @param text
+	 * @param rounds
+	 */
+	private static void playRounds(Table table, Strategy you, StringBuilder text, int rounds) {
+		for(int round = 0; round < rounds; round++) {
+			if(table.isGameOver()) table.setUpGame();
+			else table.nextRound();
+			table.playRound(you);
+			text.setLength(0);
+			table.getComputer().appendTo(text);
+			table.getYou().appendTo(text);
+		}
+	}
+
+}
@@ -0,0 +1,127 @@
+/**
+ * HandEvaluatorTest
+ * 
+ * Checks that the scores HandEvaluator returns order hands the way the rules of poker do:
+ * kickers break ties inside a category in order, the wheel (A-2-3-4-5) is the lowest straight,
+ * and hands that only differ in their suits get the same score.
+ * Hands are written out as text, e.g. "K♠ K♡ A♣ 7♢ 3♠" (see Card.VALUES and Card.SUITES).
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+
+public class HandEvaluatorTest {
+	
+	/**
+	 * KICKERS BREAK TIES IN ORDER
+	 */
+	@Test
+	public void kickersBreakTiesInOrder() {
+		assertBeats("K♠ K♡ A♣ 7♢ 3♠", "K♣ K♢ Q♠ J♡ 9♣"); // first kicker
+		assertBeats("K♠ K♡ A♣ 7♢ 4♠", "K♣ K♢ A♠ 7♡ 3♣"); // last kicker
+		assertBeats("A♠ A♡ 2♣ 3♢ 4♠", "K♣ K♢ A♠ Q♡ J♣"); // the pair before any kicker
+		assertBeats("J♠ J♡ 4♣ 4♢ A♠", "J♣ J♢ 4♠ 4♡ K♣"); // two pair, the kicker
+		assertBeats("Q♠ Q♡ 3♣ 3♢ 2♠", "J♣ J♢ 10♠ 10♡ A♣"); // two pair, the higher pair first
+		assertBeats("8♠ 8♡ 8♣ A♢ 2♠", "8♠ 8♡ 8♢ K♣ Q♠"); // triple, the kicker
+		assertBeats("A♠ Q♠ 9♠ 7♠ 5♠", "A♡ Q♡ 9♡ 7♡ 4♡"); // flush, the fifth card
+		assertBeats("A♠ Q♡ 9♣ 7♢ 5♠", "A♣ Q♢ 9♠ 7♡ 4♣"); // high card, the fifth card
+		assertBeats("2♠ 2♡ 3♣ 4♢ 5♠", "A♣ K♢ Q♠ J♡ 9♣"); // any pair beats any high card
+		assertEquals(HandEvaluator.PAIR, HandEvaluator.category(evaluate("K♠ K♡ A♣ 7♢ 3♠")));
+		assertEquals(HandEvaluator.TWO_PAIR, HandEvaluator.category(evaluate("J♠ J♡ 4♣ 4♢ A♠")));
+	}
+	
+	/**
+	 * WHEEL IS THE LOWEST STRAIGHT
+	 */
+	@Test
+	public void wheelIsTheLowestStraight() {
+		int wheel = evaluate("A♠ 2♡ 3♣ 4♢ 5♠");
+		assertEquals(HandEvaluator.STRAIGHT, HandEvaluator.category(wheel));
+		assertEquals(HandEvaluator.lowestScore(HandEvaluator.STRAIGHT, 3), wheel); // 5 high
+		assertBeats("2♠ 3♡ 4♣ 5♢ 6♠", "A♠ 2♡ 3♣ 4♢ 5♠");
+		assertBeats("A♠ 2♡ 3♣ 4♢ 5♠", "A♣ A♢ A♡ K♠ Q♠"); // still a straight
+		assertBeats("2♡ 3♡ 4♡ 5♡ 6♡", "A♠ 2♠ 3♠ 4♠ 5♠"); // and the lowest straight flush
+		assertEquals(HandEvaluator.STRAIGHT_FLUSH, HandEvaluator.category(evaluate("A♠ 2♠ 3♠ 4♠ 5♠")));
+	}
+	
+	/**
+	 * SAME VALUES ARE A REAL TIE
+	 */
+	@Test
+	public void sameValuesAreARealTie() {
+		assertEquals(evaluate("K♠ K♡ 9♣ 7♢ 3♠"), evaluate("K♣ K♢ 9♠ 7♡ 3♡"));
+		assertEquals(evaluate("10♠ J♡ Q♣ K♢ A♠"), evaluate("10♡ J♣ Q♢ K♠ A♡"));
+		assertEquals(evaluate("A♠ Q♠ 9♠ 7♠ 5♠"), evaluate("A♢ Q♢ 9♢ 7♢ 5♢"));
+		assertEquals(evaluate("9♠ 7♡ 5♣ 4♢ 2♠"), evaluate("2♡ 4♣ 5♢ 7♠ 9♡")); // the order doesn't matter
+	}
+	
+	/**
+	 * EVERY WAY OF RANKING AGREES
+	 * 
+	 * The packed card bits, the bitboard and Player.checkHand() give the same score.
+	 */
+	@Test
+	public void everyWayOfRankingAgrees() {
+		String[] hands = new String[] {"K♠ K♡ A♣ 7♢ 3♠", "A♠ 2♡ 3♣ 4♢ 5♠", "J♠ J♡ 4♣ 4♢ A♠", "A♠ Q♠ 9♠ 7♠ 5♠",
+				"8♠ 8♡ 8♣ A♢ A♠", "10♡ J♡ Q♡ K♡ A♡"};
+		Player player = new Player(new Deck(1));
+		for(String text : hands) {
+			Card[] hand = hand(text);
+			long cards = 0;
+			for(Card card : hand)
+				cards |= card.getBitboard();
+			player.setHand(hand);
+			assertEquals(HandEvaluator.evaluate(hand), HandEvaluator.evaluate(cards), text);
+			assertEquals(HandEvaluator.evaluate(hand), player.checkHand(), text);
+		}
+	}
+	
+	/**
+	 * ASSERT BEATS
+	 * 
+	 * @param winner
+	 * @param loser
+	 */
+	private static void assertBeats(String winner, String loser) {
+		assertTrue(evaluate(winner) > evaluate(loser), () -> winner + " should beat " + loser);
+	}
+	
+	/**
+	 * EVALUATE
+	 * 
+	 * @param text
+	 * @return the score of the hand
+	 */
+	private static int evaluate(String text) {
+		return HandEvaluator.evaluate(hand(text));
+	}
+	
+	/**
+	 * HAND
+	 * 
+	 * Reads a hand written out as text, each card is its value followed by its suit.
+	 * 
+	 * @param text
+	 * @return the cards of the hand
+	 */
+	static Card[] hand(String text) {
+		String[] names = text.split(" ");
+		Card[] hand = new Card[names.length];
+		for(int i = 0; i < names.length; i++) {
+			int split = names[i].length() - 1;
+			int value = Arrays.asList(Card.VALUES).indexOf(names[i].substring(0, split));
+			int suit = Arrays.asList(Card.SUITES).indexOf(names[i].substring(split));
+			if(value < 0 || suit < 0) throw new IllegalArgumentException("Not a card: " + names[i]);
+			hand[i] = Card.of(suit, value);
+		}
+		return hand;
+	}
+
+}
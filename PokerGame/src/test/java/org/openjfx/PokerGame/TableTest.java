@@ -0,0 +1,178 @@
+/**
+ * TableTest
+ * 
+ * Checks the showdown at a Table: equal best scores split the pot (between any number of seats, the odd coin going
+ * to the first winner in seat order) and seats that folded are left out even when they hold the best hand.
+ * Each round is opened as dealt and then every hand is replaced with a known one before the refresh
+ * (the computers refresh nothing), so the showdown ranks exactly the hands written out in the test.
+ * 
+ * @author endamccarthy
+ * Last Modified: 12/04/2020
+ */
+
+package org.openjfx.PokerGame;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+
+public class TableTest {
+	
+	/**
+	 * REAL TIE SPLITS THE POT
+	 */
+	@Test
+	public void realTieSplitsThePot() {
+		Table table = deal(Table.HEADS_UP, 0, "K♠ K♡ 9♣ 7♢ 3♠", "K♣ K♢ 9♠ 7♡ 3♡");
+		assertEquals(Table.DRAW, table.check());
+		assertEquals(1 << Table.COMPUTER | 1 << Table.YOU, table.getWinners());
+		assertEquals(2, table.getLastPot());
+		assertEquals(Table.STARTING_COINS, table.getComputer().getCoins());
+		assertEquals(Table.STARTING_COINS, table.getYou().getCoins());
+	}
+	
+	/**
+	 * KICKER DECIDES THE POT
+	 */
+	@Test
+	public void kickerDecidesThePot() {
+		Table table = deal(Table.HEADS_UP, 0, "K♠ K♡ 9♣ 7♢ 3♠", "K♣ K♢ 9♠ 7♡ 4♡");
+		assertEquals(Table.YOU_WIN, table.check());
+		assertEquals(Table.STARTING_COINS - 1, table.getComputer().getCoins());
+		assertEquals(Table.STARTING_COINS + 1, table.getYou().getCoins());
+	}
+	
+	/**
+	 * THREE WAY TIE SPLITS THE POT
+	 */
+	@Test
+	public void threeWayTieSplitsThePot() {
+		Table table = deal(4, 0, "5♠ 6♡ 7♣ 8♢ 9♠", "5♡ 6♣ 7♢ 8♠ 9♡", "A♠ A♡ K♣ Q♢ 2♠", "5♣ 6♢ 7♠ 8♡ 9♣");
+		table.bet();
+		assertEquals(Table.DRAW, table.submitBet(2)); // everyone calls, 4 + 4 * 2 in the pot
+		assertEquals(1 << 0 | 1 << 1 | 1 << 3, table.getWinners());
+		assertEquals(12, table.getLastPot());
+		for(int seat : new int[] {0, 1, 3})
+			assertEquals(Table.STARTING_COINS - 3 + 4, table.getPlayer(seat).getCoins(), "seat " + seat);
+		assertEquals(Table.STARTING_COINS - 3, table.getPlayer(2).getCoins());
+	}
+	
+	/**
+	 * ODD COIN GOES TO THE FIRST WINNER
+	 */
+	@Test
+	public void oddCoinGoesToTheFirstWinner() {
+		Table table = deal(3, 0, "2♠ 2♡ 5♣ 7♢ 9♠", "Q♠ Q♡ J♣ 4♢ 3♠", "Q♣ Q♢ J♠ 4♡ 3♡");
+		assertEquals(Table.DRAW, table.check()); // a pot of 3 split 2 ways
+		assertEquals(1 << Table.YOU | 1 << 2, table.getWinners());
+		assertEquals(Table.STARTING_COINS - 1, table.getComputer().getCoins());
+		assertEquals(Table.STARTING_COINS - 1 + 2, table.getYou().getCoins());
+		assertEquals(Table.STARTING_COINS - 1 + 1, table.getPlayer(2).getCoins());
+		table = deal(3, 0, "Q♠ Q♡ J♣ 4♢ 3♠", "2♠ 2♡ 5♣ 7♢ 9♠", "Q♣ Q♢ J♠ 4♡ 3♡");
+		assertEquals(Table.COMPUTER_WINS, table.check());
+		assertEquals(1 << Table.COMPUTER | 1 << 2, table.getWinners());
+		assertEquals(Table.STARTING_COINS - 1 + 2, table.getComputer().getCoins());
+		assertEquals(Table.STARTING_COINS - 1 + 1, table.getPlayer(2).getCoins());
+	}
+	
+	/**
+	 * FOLDED SEATS ARE LEFT OUT
+	 */
+	@Test
+	public void foldedSeatsAreLeftOut() {
+		Table table = deal(3, 1 << 2, "2♠ 2♡ 5♣ 7♢ 9♠", "Q♠ Q♡ J♣ 4♢ 3♠", "A♠ A♡ A♣ K♢ K♠");
+		table.bet();
+		assertEquals(Table.YOU_WIN, table.submitBet(1)); // seat 2 folds its full house
+		assertFalse(table.isInRound(2));
+		assertEquals(1 << Table.YOU, table.getWinners());
+		assertEquals(5, table.getLastPot());
+		assertEquals(Table.STARTING_COINS - 2, table.getComputer().getCoins());
+		assertEquals(Table.STARTING_COINS - 2 + 5, table.getYou().getCoins());
+		assertEquals(Table.STARTING_COINS - 1, table.getPlayer(2).getCoins());
+	}
+	
+	/**
+	 * DEAL
+	 * 
+	 * Deals a new game, opens it, gives every seat the hand passed in for it and refreshes nothing.
+	 * 
+	 * @param seats
+	 * @param folding bit i is set for every computer seat that folds to a bet
+	 * @param hands one for every seat, in seat order
+	 * @return the table, ready for check() or bet()
+	 */
+	static Table deal(int seats, int folding, String... hands) {
+		Table table = new Table(new SplittableRandom(2020), seats);
+		table.setComputerStrategy(new FixedStrategy(folding));
+		table.setMinOpen(0); // anyone can open
+		table.setUpGame();
+		table.open();
+		for(int seat = 0; seat < seats; seat++)
+			table.getPlayer(seat).setHand(HandEvaluatorTest.hand(hands[seat]));
+		table.refresh(0);
+		return table;
+	}
+	
+	/**
+	 * FixedStrategy
+	 * 
+	 * Plays the computers without changing their hands: refreshes nothing and sees every bet, except at the folding seats.
+	 */
+	static class FixedStrategy implements Strategy {
+		
+		/** Class variables */
+		final private int folding;
+		
+		/**
+		 * CONSTRUCTOR
+		 * 
+		 * @param folding bit i is set for every seat that folds to a bet
+		 */
+		FixedStrategy(int folding) {
+			this.folding = folding;
+		}
+		
+		/**
+		 * OPEN
+		 */
+		@Override
+		public boolean open(Table table, int seat) {
+			return true;
+		}
+		
+		/**
+		 * DISCARD
+		 */
+		@Override
+		public int discard(Table table, int seat) {
+			return 0;
+		}
+		
+		/**
+		 * BET
+		 */
+		@Override
+		public int bet(Table table, int seat, int maxBetAmount) {
+			return 0;
+		}
+		
+		/**
+		 * CALL
+		 */
+		@Override
+		public boolean call(Table table, int seat, int betAmount) {
+			return (folding & 1 << seat) == 0;
+		}
+		
+		/**
+		 * GET NAME
+		 */
+		@Override
+		public String getName() {
+			return "Fixed";
+		}
+		
+	}
+
+}